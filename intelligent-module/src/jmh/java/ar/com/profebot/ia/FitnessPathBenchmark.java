@@ -0,0 +1,65 @@
+package ar.com.profebot.ia;
+
+import ia.module.fitness.ProceduralSimilarExpressionCalculator;
+import ia.module.parser.Parser;
+import ia.module.parser.ProgramTreeConverter;
+import io.jenetics.ext.util.TreeNode;
+import io.jenetics.prog.ProgramGene;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the two ways GeneticAlgorithm can score a candidate: converting the program tree
+ * straight into an expression tree, or printing it as infix and parsing that string back.
+ *
+ * Run with: mvn -Pbenchmarks test-compile exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class FitnessPathBenchmark {
+
+	@Param({"3(x+1)+5", "x^2+3x"})
+	private String target;
+
+	private ProceduralSimilarExpressionCalculator calculator;
+	private List<ProgramGene<Double>> genes;
+
+	@Setup
+	public void setUp() {
+		calculator = new ProceduralSimilarExpressionCalculator(target);
+		genes = ProgramTreeConverterTests.corpus(500);
+	}
+
+	@Benchmark
+	public void programTreeConverter(Blackhole blackhole) throws Exception {
+		ProgramTreeConverter converter = new ProgramTreeConverter();
+		for (ProgramGene<Double> gene : genes) {
+			blackhole.consume(calculator.similarityWith(converter.convert(gene)));
+		}
+	}
+
+	@Benchmark
+	public void infixString(Blackhole blackhole) {
+		Parser parser = new Parser();
+		for (ProgramGene<Double> gene : genes) {
+			blackhole.consume(calculator.similarityWith(parser.getAsInfix(TreeNode.ofTree(gene))));
+		}
+	}
+}
@@ -0,0 +1,12 @@
+package ar.com.profebot.ia;
+
+import java.util.concurrent.RejectedExecutionException;
+
+public class AdmissionRejectedException extends RejectedExecutionException {
+
+    private static final long serialVersionUID = 1L;
+
+    public AdmissionRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,26 @@
+package ar.com.profebot.ia;
+
+public class BatchEquationsResponse {
+
+    private Integer index;
+    private String equations;
+    private String error;
+
+    public BatchEquationsResponse(Integer index, String equations, String error) {
+        this.index = index;
+        this.equations = equations;
+        this.error = error;
+    }
+
+    public Integer getIndex() {
+        return index;
+    }
+
+    public String getEquations() {
+        return equations;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
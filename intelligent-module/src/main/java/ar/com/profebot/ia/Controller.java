@@ -1,21 +1,111 @@
 package ar.com.profebot.ia;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.util.List;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 @RequestMapping("/")
 @RestController
 public class Controller {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     @RequestMapping(method = RequestMethod.GET)
-    public EquationsResponse newEquationsSimilarTo() {
-        return GeneticAlgorithmExecutor.execute("3(x+1)", "3(x+1)+5", "=");
+    public CompletableFuture<ResponseEntity<EquationsResponse>> newEquationsSimilarTo() {
+        return admit(() -> GeneticAlgorithmExecutor.executeAsync(new IAModuleParams("=", "3(x+1)", "3(x+1)+5")));
     }
 
     @RequestMapping(value = "/more/practice", method = RequestMethod.POST)
-    public String newEquationsSimilarTo(@RequestBody IAModuleParams params) {
-        return GeneticAlgorithmExecutor.execute(params.getTerm(), params.getContext(), params.getRoot()).getEquations();
+    public CompletableFuture<ResponseEntity<String>> newEquationsSimilarTo(@RequestBody IAModuleParams params) {
+        return admit(() -> GeneticAlgorithmExecutor.executeAsync(params)
+                .thenApply(EquationsResponse::getEquations));
+    }
+
+    @RequestMapping(value = "/more/practice/batch", method = RequestMethod.POST, produces = NDJSON)
+    public ResponseEntity<ResponseBodyEmitter> newEquationsSimilarTo(@RequestBody List<IAModuleParams> batch) {
+        if (batch.size() > GeneticAlgorithmExecutor.getMaxBatchSize()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        List<CompletableFuture<EquationsResponse>> responses;
+        try {
+            responses = GeneticAlgorithmExecutor.executeAllAsync(batch);
+        } catch (AdmissionRejectedException e) {
+            return tooManyRequests();
+        } catch (RejectedExecutionException e) {
+            return serviceUnavailable();
+        }
+
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        AtomicInteger pending = new AtomicInteger(responses.size());
+        if (responses.isEmpty()) {
+            emitter.complete();
+        }
+        for (int i = 0; i < responses.size(); i++) {
+            int index = i;
+            responses.get(i).whenComplete((response, error) -> {
+                send(emitter, error == null
+                        ? new BatchEquationsResponse(index, response.getEquations(), null)
+                        : new BatchEquationsResponse(index, null, messageOf(error)));
+                if (pending.decrementAndGet() == 0) {
+                    emitter.complete();
+                }
+            });
+        }
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(emitter);
+    }
+
+    private void send(ResponseBodyEmitter emitter, BatchEquationsResponse response) {
+        synchronized (emitter) {
+            try {
+                emitter.send(response, MediaType.APPLICATION_JSON);
+                emitter.send("\n", MediaType.TEXT_PLAIN);
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private String messageOf(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    private <T> CompletableFuture<ResponseEntity<T>> admit(Supplier<CompletableFuture<T>> request) {
+        try {
+            return request.get().thenApply(ResponseEntity::ok);
+        } catch (AdmissionRejectedException e) {
+            return CompletableFuture.completedFuture(tooManyRequests());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(serviceUnavailable());
+        }
+    }
+
+    private <T> ResponseEntity<T> tooManyRequests() {
+        return retryLater(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    private <T> ResponseEntity<T> serviceUnavailable() {
+        return retryLater(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    private <T> ResponseEntity<T> retryLater(HttpStatus status) {
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(GeneticAlgorithmExecutor.getRetryAfterSeconds()))
+                .build();
     }
 }
@@ -0,0 +1,87 @@
+package ar.com.profebot.ia;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+public class ExercisePool {
+
+    private static final int MAX_SHAPES = Integer.getInteger("profebot.pool.shapes", 64);
+    private static final int CAPACITY = Integer.getInteger("profebot.pool.capacity", 8);
+    private static final int LOW_WATER_MARK = Integer.getInteger("profebot.pool.low.water", 2);
+    private static final int MIN_REQUESTS = Integer.getInteger("profebot.pool.min.requests", 3);
+    private static final ExecutorService REFILL_POOL = Executors.newSingleThreadExecutor(new GeneticAlgorithmExecutor.EvolutionThreadFactory("pool-refill-"));
+    private static final Map<ExerciseShape, Shelf> SHELVES = new LruMap<>(MAX_SHAPES);
+
+    public static EquationsResponse take(ExerciseShape shape) {
+        if (CAPACITY <= 0) {
+            return null;
+        }
+        Shelf shelf;
+        synchronized (SHELVES) {
+            shelf = SHELVES.computeIfAbsent(shape, Shelf::new);
+        }
+        return shelf.take();
+    }
+
+    private static boolean isStocked(Shelf shelf) {
+        synchronized (SHELVES) {
+            return SHELVES.get(shelf.shape) == shelf;
+        }
+    }
+
+    static class Shelf {
+
+        private ExerciseShape shape;
+        private Deque<EquationsResponse> exercises = new ArrayDeque<>();
+        private int requests;
+        private boolean refilling;
+
+        public Shelf(ExerciseShape aShape) {
+            shape = aShape;
+        }
+
+        public synchronized EquationsResponse take() {
+            EquationsResponse exercise = exercises.pollFirst();
+            requests++;
+            if (requests >= MIN_REQUESTS && exercises.size() < LOW_WATER_MARK) {
+                scheduleRefill();
+            }
+            return exercise;
+        }
+
+        private synchronized void scheduleRefill() {
+            if (refilling) {
+                return;
+            }
+            try {
+                REFILL_POOL.execute(this::refill);
+                refilling = true;
+            } catch (RejectedExecutionException e) {
+                refilling = false;
+            }
+        }
+
+        private void refill() {
+            EquationsResponse exercise = null;
+            try {
+                exercise = GeneticAlgorithmExecutor.executeWithSpareCapacity(shape.getTermExpression(), shape.getContextExpression(), shape.getRoot());
+            } catch (RuntimeException e) {
+                System.out.println("\n\n\n\nRefill of " + shape + " failed: " + e + "\n\n\n\n");
+            }
+            synchronized (this) {
+                refilling = false;
+                if (exercise == null || "".equals(exercise.getEquations())) {
+                    return;
+                }
+                exercises.addLast(exercise);
+                if (exercises.size() < CAPACITY && isStocked(this)) {
+                    scheduleRefill();
+                }
+            }
+        }
+    }
+}
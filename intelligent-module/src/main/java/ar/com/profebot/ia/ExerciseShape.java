@@ -0,0 +1,69 @@
+package ar.com.profebot.ia;
+
+import ia.module.parser.Parser;
+
+import java.util.Objects;
+
+public class ExerciseShape {
+
+    private String root;
+    private String term;
+    private String context;
+    private String termExpression;
+    private String contextExpression;
+
+    private ExerciseShape(String root, String termExpression, String contextExpression) {
+        this.root = root;
+        this.term = canonicalFormOf(termExpression);
+        this.context = canonicalFormOf(contextExpression);
+        this.termExpression = termExpression;
+        this.contextExpression = contextExpression;
+    }
+
+    public static ExerciseShape of(String aTermExpression, String aContextExpression, String root) {
+        return new ExerciseShape(root, aTermExpression, "".equals(aContextExpression) ? aTermExpression : aContextExpression);
+    }
+
+    public String getRoot() {
+        return root;
+    }
+
+    public String getTermExpression() {
+        return termExpression;
+    }
+
+    public String getContextExpression() {
+        return contextExpression;
+    }
+
+    private static String canonicalFormOf(String expression) {
+        String compactExpression = String.valueOf(expression).replaceAll("\\s", "");
+        try {
+            return new Parser().parse(compactExpression).normalize().getListOfTokens().toString();
+        } catch (Exception e) {
+            return compactExpression;
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ExerciseShape)) {
+            return false;
+        }
+        ExerciseShape shape = (ExerciseShape) other;
+        return Objects.equals(root, shape.root) && term.equals(shape.term) && context.equals(shape.context);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(root, term, context);
+    }
+
+    @Override
+    public String toString() {
+        return term + " in " + context + " " + root;
+    }
+}
@@ -1,65 +1,307 @@
 package ar.com.profebot.ia;
 
+import ia.module.genetic.algorithm.EvolutionDeadline;
 import ia.module.genetic.algorithm.GeneticAlgorithm;
+import ia.module.genetic.algorithm.TerminationPolicy;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class GeneticAlgorithmExecutor {
 
-    public static EquationsResponse execute(String aTermExpression, String aContextExpression, String root){
-        return new EquationsResponse(getMostSimilarExpressionTo(aTermExpression, "".equals(aContextExpression) ? aTermExpression : aContextExpression), root);
+    private static final int EVOLUTION_WORKERS = Integer.getInteger("profebot.evolution.workers", Math.max(4, Runtime.getRuntime().availableProcessors()));
+    private static final long EVOLUTION_TIMEOUT_MILLIS = Long.getLong("profebot.evolution.timeout.millis", TimeUnit.SECONDS.toMillis(10));
+    private static final long EVOLUTION_QUEUE_TIMEOUT_MILLIS = Long.getLong("profebot.evolution.queue.timeout.millis", EVOLUTION_TIMEOUT_MILLIS);
+    private static final long CANCELLATION_GRACE_MILLIS = 500;
+    private static final int EVOLUTIONS_PER_REQUEST = 4;
+    private static final int REQUEST_WORKERS = Integer.getInteger("profebot.requests.workers", Math.max(1, EVOLUTION_WORKERS / EVOLUTIONS_PER_REQUEST));
+    private static final int REQUEST_QUEUE_CAPACITY = Integer.getInteger("profebot.requests.queue", 2 * REQUEST_WORKERS);
+    private static final int MAX_PENDING_REQUESTS = REQUEST_WORKERS + REQUEST_QUEUE_CAPACITY;
+    private static final int MAX_BATCH_SIZE = Math.min(Integer.getInteger("profebot.requests.batch.max", MAX_PENDING_REQUESTS), MAX_PENDING_REQUESTS);
+    private static final Semaphore ADMISSION = new Semaphore(MAX_PENDING_REQUESTS);
+    private static final ExecutorService EVOLUTION_POOL = Executors.newFixedThreadPool(EVOLUTION_WORKERS, new EvolutionThreadFactory("evolution-worker-"));
+    private static final ExecutorService REQUEST_POOL = Executors.newFixedThreadPool(REQUEST_WORKERS, new EvolutionThreadFactory("request-worker-"));
+
+    public static CompletableFuture<EquationsResponse> executeAsync(IAModuleParams params) throws RejectedExecutionException {
+        ExerciseShape shape = shapeOf(params);
+        EquationsResponse ready = takeReady(shape);
+        if (ready != null) {
+            return CompletableFuture.completedFuture(ready);
+        }
+        admit(1);
+        return submit(shape, params);
+    }
+
+    private static void admit(int requests) throws AdmissionRejectedException {
+        if (!ADMISSION.tryAcquire(requests)) {
+            throw new AdmissionRejectedException(requests + " requests do not fit in the " + ADMISSION.availablePermits() + " free request slots");
+        }
+    }
+
+    private static CompletableFuture<EquationsResponse> submit(ExerciseShape shape, IAModuleParams params){
+        CompletableFuture<EquationsResponse> response;
+        try {
+            response = CompletableFuture.supplyAsync(() -> remember(shape, execute(params)), REQUEST_POOL);
+        } catch (RuntimeException e) {
+            ADMISSION.release();
+            throw e;
+        }
+        response.whenComplete((equations, error) -> ADMISSION.release());
+        return response;
+    }
+
+    private static ExerciseShape shapeOf(IAModuleParams params){
+        if (params.hasCustomTermination()) {
+            return null;
+        }
+        return ExerciseShape.of(params.getTerm(), params.getContext(), params.getRoot());
+    }
+
+    private static EquationsResponse takeReady(ExerciseShape shape){
+        if (shape == null) {
+            return null;
+        }
+        EquationsResponse cached = ResponseCache.get(shape);
+        if (cached != null && !ResponseCache.needsVariants(shape)) {
+            return cached;
+        }
+        EquationsResponse pooled = ExercisePool.take(shape);
+        return pooled != null ? remember(shape, pooled) : cached;
     }
 
-    private static List<ExpressionResponse> getMostSimilarExpressionTo(String aTermExpression, String aContextExpression){
-        List<ExpressionResponse> responses = new ArrayList<>();
-        responses.add(getNewExpressionFrom(aTermExpression));
-        responses.add(getNewExpressionFrom(aContextExpression));
-        responses.add(getNewExpressionFrom(aContextExpression));
-        responses.add(getNewExpressionFrom(aContextExpression));
+    private static EquationsResponse remember(ExerciseShape shape, EquationsResponse response){
+        if (shape != null) {
+            ResponseCache.put(shape, response);
+        }
+        return response;
+    }
+
+    public static long getRetryAfterSeconds(){
+        return TimeUnit.MILLISECONDS.toSeconds(EVOLUTION_TIMEOUT_MILLIS + CANCELLATION_GRACE_MILLIS + 999);
+    }
+
+    public static List<CompletableFuture<EquationsResponse>> executeAllAsync(List<IAModuleParams> batch) throws RejectedExecutionException {
+        List<CompletableFuture<EquationsResponse>> responses = new ArrayList<>();
+        List<ExerciseShape> shapes = new ArrayList<>();
+        for (IAModuleParams params : batch) {
+            ExerciseShape shape = shapeOf(params);
+            EquationsResponse ready = takeReady(shape);
+            shapes.add(shape);
+            responses.add(ready != null ? CompletableFuture.completedFuture(ready) : null);
+        }
+        int pending = (int) responses.stream().filter(response -> response == null).count();
+        if (pending > 0) {
+            admit(pending);
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            if (responses.get(i) == null) {
+                responses.set(i, submit(shapes.get(i), batch.get(i)));
+            }
+        }
         return responses;
     }
 
-    private static ExpressionResponse getNewExpressionFrom(String baseExpression){
-        ExecutorService executor = Executors.newSingleThreadExecutor();
-        ExpressionResponse response = ExpressionResponse.empty();
-        do {
+    public static int getMaxBatchSize(){
+        return MAX_BATCH_SIZE;
+    }
+
+    public static EquationsResponse execute(String aTermExpression, String aContextExpression, String root){
+        return execute(new IAModuleParams(root, aTermExpression, aContextExpression));
+    }
+
+    public static EquationsResponse executeWithSpareCapacity(String aTermExpression, String aContextExpression, String root){
+        if (!ADMISSION.tryAcquire()) {
+            return null;
+        }
+        try {
+            return execute(aTermExpression, aContextExpression, root);
+        } finally {
+            ADMISSION.release();
+        }
+    }
+
+    public static EquationsResponse execute(IAModuleParams params){
+        return new Request(params).await();
+    }
+
+    private static TerminationPolicy terminationPolicyOf(IAModuleParams params){
+        TerminationPolicy policy = TerminationPolicy.defaults();
+        if (params.getExpectedFitness() != null) {
+            policy = policy.withExpectedFitness(params.getExpectedFitness());
+        }
+        if (params.getMinGenerations() != null) {
+            policy = policy.withMinGenerations(params.getMinGenerations());
+        }
+        if (params.getSteadyGenerations() != null) {
+            policy = policy.withSteadyGenerations(params.getSteadyGenerations());
+        }
+        if (params.getMaxEvaluations() != null) {
+            policy = policy.withMaxEvaluations(params.getMaxEvaluations());
+        }
+        return policy;
+    }
+
+    private static long timeoutOf(IAModuleParams params){
+        if (params.getTimeoutMillis() == null || params.getTimeoutMillis() <= 0) {
+            return EVOLUTION_TIMEOUT_MILLIS;
+        }
+        return Math.min(params.getTimeoutMillis(), EVOLUTION_TIMEOUT_MILLIS);
+    }
+
+    static class Request {
+
+        private String root;
+        private List<Evolution> evolutions = new ArrayList<>();
+
+        public Request(IAModuleParams params){
+            String termExpression = params.getTerm();
+            String contextExpression = "".equals(params.getContext()) ? termExpression : params.getContext();
+            TerminationPolicy policy = terminationPolicyOf(params);
+            long timeoutMillis = timeoutOf(params);
+            root = params.getRoot();
+            evolutions.add(new Evolution(termExpression, policy, timeoutMillis));
+            while (evolutions.size() < EVOLUTIONS_PER_REQUEST) {
+                evolutions.add(new Evolution(contextExpression, policy, timeoutMillis));
+            }
+        }
+
+        public EquationsResponse await(){
+            List<ExpressionResponse> responses = new ArrayList<>();
+            for (Evolution evolution : evolutions) {
+                responses.add(evolution.await());
+            }
+            return new EquationsResponse(responses, root);
+        }
+    }
+
+    static class Evolution {
+
+        private Task task;
+        private Future<ExpressionResponse> future;
+
+        public Evolution(String aBaseExpression, TerminationPolicy aPolicy, long timeoutMillis){
+            task = new Task(aBaseExpression, timeoutMillis, aPolicy);
+            future = EVOLUTION_POOL.submit(task);
+        }
+
+        public ExpressionResponse await(){
             try {
-                response = executor.submit(new Task(baseExpression)).get(5, TimeUnit.SECONDS);
-            } catch (Exception e) {
-                System.out.println("\n\n\n\nTimeout: " + e.getMessage() + "\n\n\n\n");
-                for (Thread thread : Thread.getAllStackTraces().keySet()) {
-                    if (thread.getName().contains("pool-") && thread.getName().contains("thread-")) {
-                        System.out.println("Thread stopped: " + thread.getName());
-                        thread.stop();
-                    }
+                if (!task.awaitStart(EVOLUTION_QUEUE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    System.out.println("\n\n\n\nTimeout: evolution of " + task.getBaseExpression() + " never left the queue, dropping it\n\n\n\n");
+                    future.cancel(false);
+                } else {
+                    return future.get(task.remaining(TimeUnit.MILLISECONDS) + CANCELLATION_GRACE_MILLIS, TimeUnit.MILLISECONDS);
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(false);
+            } catch (TimeoutException e) {
+                System.out.println("\n\n\n\nTimeout: evolution of " + task.getBaseExpression() + " is still evaluating a candidate, using its best so far\n\n\n\n");
+                future.cancel(false);
+            } catch (ExecutionException e) {
+                System.out.println("\n\n\n\nEvolution failed: " + e.getCause() + "\n\n\n\n");
             }
-        }while (!response.isValid());
-
-        return response;
+            task.cancel();
+            return task.getBestSoFar();
+        }
     }
 
     static class Task implements Callable<ExpressionResponse> {
 
         private String baseExpression;
+        private long timeoutMillis;
+        private TerminationPolicy policy;
+        private CountDownLatch started = new CountDownLatch(1);
+        private volatile EvolutionDeadline deadline;
+        private volatile boolean cancelled;
+        private volatile ExpressionResponse best = ExpressionResponse.empty();
+        private volatile GeneticAlgorithm current;
 
-        public Task(String aBaseExpression){
+        public Task(String aBaseExpression, long aTimeoutMillis, TerminationPolicy aPolicy){
             baseExpression = aBaseExpression;
+            timeoutMillis = aTimeoutMillis;
+            policy = aPolicy;
+        }
+
+        public String getBaseExpression() {
+            return baseExpression;
         }
 
         @Override
         public ExpressionResponse call() throws Exception {
-            GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(this.baseExpression);
-            String mostSimilarExpression = geneticAlgorithm.getExpressionMostSimilar();
-            Double similarity = geneticAlgorithm.getSimilarExpressionCalculator().similarityWith(mostSimilarExpression);
-            return new ExpressionResponse(mostSimilarExpression, similarity);
+            deadline = EvolutionDeadline.after(timeoutMillis, TimeUnit.MILLISECONDS);
+            if (cancelled) {
+                deadline.cancel();
+            }
+            started.countDown();
+            do {
+                current = new GeneticAlgorithm(this.baseExpression).evaluatingInParallel().terminatingWhen(policy);
+                current.getExpressionMostSimilar(deadline);
+                best = getBestSoFar();
+            }while (!best.isValid() && !deadline.isExpired());
+
+            return best;
+        }
+
+        public boolean awaitStart(long timeout, TimeUnit unit) throws InterruptedException {
+            return started.await(timeout, unit);
+        }
+
+        public long remaining(TimeUnit unit){
+            EvolutionDeadline startedDeadline = deadline;
+            return startedDeadline != null ? startedDeadline.remaining(unit) : unit.convert(timeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        public void cancel(){
+            cancelled = true;
+            EvolutionDeadline startedDeadline = deadline;
+            if (startedDeadline != null) {
+                startedDeadline.cancel();
+            }
+        }
+
+        public ExpressionResponse getBestSoFar(){
+            ExpressionResponse bestSoFar = best;
+            GeneticAlgorithm geneticAlgorithm = current;
+            if (geneticAlgorithm != null) {
+                ExpressionResponse candidate = new ExpressionResponse(geneticAlgorithm.getBestExpression(), geneticAlgorithm.getBestFitness());
+                if (!"".equals(candidate.getExpressionAsInfix()) && candidate.getSimilarity() > bestSoFar.getSimilarity()) {
+                    return candidate;
+                }
+            }
+            return bestSoFar;
+        }
+    }
+
+    static class EvolutionThreadFactory implements ThreadFactory {
+
+        private final String namePrefix;
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        public EvolutionThreadFactory(String aNamePrefix){
+            namePrefix = aNamePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, namePrefix + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
         }
     }
 }
@@ -14,6 +14,21 @@ public class IAModuleParams {
     @JsonProperty("context")
     private String context;
 
+    @JsonProperty("expectedFitness")
+    private Double expectedFitness;
+
+    @JsonProperty("minGenerations")
+    private Integer minGenerations;
+
+    @JsonProperty("steadyGenerations")
+    private Integer steadyGenerations;
+
+    @JsonProperty("maxEvaluations")
+    private Long maxEvaluations;
+
+    @JsonProperty("timeoutMillis")
+    private Long timeoutMillis;
+
     @JsonCreator
     public IAModuleParams(@JsonProperty("root") String root,
                           @JsonProperty("term") String term,
@@ -37,4 +52,33 @@ public class IAModuleParams {
     public String getContext() {
         return context;
     }
+
+    @JsonProperty("expectedFitness")
+    public Double getExpectedFitness() {
+        return expectedFitness;
+    }
+
+    @JsonProperty("minGenerations")
+    public Integer getMinGenerations() {
+        return minGenerations;
+    }
+
+    @JsonProperty("steadyGenerations")
+    public Integer getSteadyGenerations() {
+        return steadyGenerations;
+    }
+
+    @JsonProperty("maxEvaluations")
+    public Long getMaxEvaluations() {
+        return maxEvaluations;
+    }
+
+    @JsonProperty("timeoutMillis")
+    public Long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public Boolean hasCustomTermination() {
+        return expectedFitness != null || minGenerations != null || steadyGenerations != null || maxEvaluations != null || timeoutMillis != null;
+    }
 }
@@ -0,0 +1,21 @@
+package ar.com.profebot.ia;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class LruMap<K, V> extends LinkedHashMap<K, V> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int maxEntries;
+
+    public LruMap(int maxEntries) {
+        super(16, 0.75f, true);
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > maxEntries;
+    }
+}
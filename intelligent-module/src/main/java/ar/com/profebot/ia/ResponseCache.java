@@ -0,0 +1,83 @@
+package ar.com.profebot.ia;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+public class ResponseCache {
+
+    private static final int MAX_ENTRIES = Integer.getInteger("profebot.cache.entries", 256);
+    private static final int VARIANTS = Integer.getInteger("profebot.cache.variants", 3);
+    private static final long TTL_NANOS = TimeUnit.MILLISECONDS.toNanos(Long.getLong("profebot.cache.ttl.millis", TimeUnit.MINUTES.toMillis(10)));
+    private static final Map<ExerciseShape, CachedVariants> ENTRIES = new LruMap<>(MAX_ENTRIES);
+
+    public static EquationsResponse get(ExerciseShape shape) {
+        if (VARIANTS <= 0) {
+            return null;
+        }
+        synchronized (ENTRIES) {
+            CachedVariants entry = ENTRIES.get(shape);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.isExpired()) {
+                ENTRIES.remove(shape);
+                return null;
+            }
+            return entry.sample();
+        }
+    }
+
+    public static boolean needsVariants(ExerciseShape shape) {
+        if (VARIANTS <= 0) {
+            return false;
+        }
+        synchronized (ENTRIES) {
+            CachedVariants entry = ENTRIES.get(shape);
+            return entry == null || entry.isExpired() || !entry.isFull();
+        }
+    }
+
+    public static void put(ExerciseShape shape, EquationsResponse response) {
+        if (VARIANTS <= 0 || "".equals(response.getEquations())) {
+            return;
+        }
+        synchronized (ENTRIES) {
+            CachedVariants entry = ENTRIES.get(shape);
+            if (entry == null || entry.isExpired()) {
+                entry = new CachedVariants();
+                ENTRIES.put(shape, entry);
+            }
+            entry.add(response);
+        }
+    }
+
+    static class CachedVariants {
+
+        private long expiresAt = System.nanoTime() + TTL_NANOS;
+        private List<EquationsResponse> variants = new ArrayList<>();
+
+        public boolean isExpired() {
+            return System.nanoTime() - expiresAt >= 0;
+        }
+
+        public boolean isFull() {
+            return variants.size() >= VARIANTS;
+        }
+
+        public void add(EquationsResponse response) {
+            if (!isFull()) {
+                variants.add(response);
+            }
+        }
+
+        public EquationsResponse sample() {
+            if (variants.isEmpty()) {
+                return null;
+            }
+            return variants.get(ThreadLocalRandom.current().nextInt(variants.size()));
+        }
+    }
+}
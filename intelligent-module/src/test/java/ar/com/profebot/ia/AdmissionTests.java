@@ -0,0 +1,68 @@
+package ar.com.profebot.ia;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+public class AdmissionTests {
+
+	@Test
+	public void requestsOverTheAdmissionLimitGetTooManyRequests() throws Exception {
+		Controller controller = new Controller();
+		List<CompletableFuture<EquationsResponse>> running = GeneticAlgorithmExecutor.executeAllAsync(batchOf(GeneticAlgorithmExecutor.getMaxBatchSize()));
+		try {
+			ResponseEntity<String> single = controller.newEquationsSimilarTo(shortRun()).get();
+			assertEquals(HttpStatus.TOO_MANY_REQUESTS, single.getStatusCode());
+			assertNotNull(single.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+			ResponseEntity<?> batch = controller.newEquationsSimilarTo(batchOf(1));
+			assertEquals(HttpStatus.TOO_MANY_REQUESTS, batch.getStatusCode());
+			assertNotNull(batch.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+		} finally {
+			CompletableFuture.allOf(running.toArray(new CompletableFuture[0])).join();
+		}
+	}
+
+	@Test
+	public void aBatchIsAdmittedWholeOrNotAtAllAndReleasesItsSlots() throws Exception {
+		int slots = GeneticAlgorithmExecutor.getMaxBatchSize();
+		List<CompletableFuture<EquationsResponse>> running = new ArrayList<>(GeneticAlgorithmExecutor.executeAllAsync(batchOf(slots - 1)));
+		try {
+			try {
+				GeneticAlgorithmExecutor.executeAllAsync(batchOf(2));
+				fail("a batch of 2 fits in 1 free slot");
+			} catch (AdmissionRejectedException expected) {
+			}
+			running.addAll(GeneticAlgorithmExecutor.executeAllAsync(batchOf(1)));
+		} finally {
+			CompletableFuture.allOf(running.toArray(new CompletableFuture[0])).join();
+		}
+		assertEquals(slots, running.size());
+
+		List<CompletableFuture<EquationsResponse>> again = GeneticAlgorithmExecutor.executeAllAsync(batchOf(slots));
+		CompletableFuture.allOf(again.toArray(new CompletableFuture[0])).join();
+		assertEquals(slots, again.size());
+	}
+
+	private static List<IAModuleParams> batchOf(int size) throws Exception {
+		List<IAModuleParams> batch = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			batch.add(shortRun());
+		}
+		return batch;
+	}
+
+	private static IAModuleParams shortRun() throws Exception {
+		return new ObjectMapper().readValue("{\"root\":\"=\",\"term\":\"2x-5\",\"context\":\"3(x+1)\",\"timeoutMillis\":500}", IAModuleParams.class);
+	}
+}
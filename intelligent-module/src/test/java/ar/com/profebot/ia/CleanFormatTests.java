@@ -0,0 +1,46 @@
+package ar.com.profebot.ia;
+
+import ia.module.parser.Parser;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class CleanFormatTests {
+
+	private static final String[] FRAGMENTS = {
+			"0", "1", "2", "7", "9", ".", "e", "pi", "p", "i", "d", "x", "dx", "dx*", "derivative", "integral", "deriv", "integ",
+			"+", "-", "*", "/", "^", "(", ")", " ", "sqrt", "sin", "cos", "tan", "ln", "log", "log2b", "int", "exp"
+	};
+
+	@Test
+	public void cleanFormatMatchesTheRegexCleanFormat() {
+		Random random = new Random(20180703L);
+		RegexCleanFormat reference = new RegexCleanFormat();
+		Parser parser = new Parser();
+		for (int i = 0; i < 50000; i++) {
+			String input = randomInput(random);
+			assertEquals("'" + input + "'", reference.cleanFormatOf(input), parser.cleanFormatOf(input));
+		}
+	}
+
+	@Test
+	public void cleanFormatMatchesTheRegexCleanFormatOnExercises() {
+		RegexCleanFormat reference = new RegexCleanFormat();
+		Parser parser = new Parser();
+		String[] exercises = {"3(x+1)+5", "2x-5", "x^2+3x", "(x+1)(x-1)", "2sqrt(x)", "dx(x^2)", "derivative(3x)", "integral(2x)", "e^x+pi", "(x+1)x"};
+		for (String input : exercises) {
+			assertEquals(input, reference.cleanFormatOf(input), parser.cleanFormatOf(input));
+		}
+	}
+
+	private static String randomInput(Random random) {
+		StringBuilder input = new StringBuilder();
+		int fragments = random.nextInt(12);
+		for (int i = 0; i < fragments; i++) {
+			input.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+		}
+		return input.toString();
+	}
+}
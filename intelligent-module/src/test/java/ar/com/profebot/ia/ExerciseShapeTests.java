@@ -0,0 +1,30 @@
+package ar.com.profebot.ia;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class ExerciseShapeTests {
+
+	@Test
+	public void spacingDoesNotChangeTheShape() {
+		assertEquals(ExerciseShape.of("3(x+1)", "3(x+1)+5", "="), ExerciseShape.of("3 (x + 1)", "3(x+1) + 5", "="));
+	}
+
+	@Test
+	public void emptyContextIsTheTermItself() {
+		assertEquals(ExerciseShape.of("2x", "", "="), ExerciseShape.of("2x", "2x", "="));
+	}
+
+	@Test
+	public void rootAndTermTellShapesApart() {
+		assertNotEquals(ExerciseShape.of("3(x+1)", "", "="), ExerciseShape.of("3(x+1)", "", ">"));
+		assertNotEquals(ExerciseShape.of("3(x+1)", "", "="), ExerciseShape.of("x^2", "", "="));
+	}
+
+	@Test
+	public void unparseableExpressionsFallBackToTheirText() {
+		assertEquals(ExerciseShape.of("3(x+", "", "="), ExerciseShape.of("3(x +", "", "="));
+	}
+}
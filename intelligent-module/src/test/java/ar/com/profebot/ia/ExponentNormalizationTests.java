@@ -0,0 +1,44 @@
+package ar.com.profebot.ia;
+
+import ia.module.config.ExpressionsConfig;
+import ia.module.fitness.ProceduralSimilarExpressionCalculator;
+import ia.module.parser.Parser;
+import ia.module.parser.tree.ExponentiationExpressionNode;
+import ia.module.parser.tree.ExpressionNode;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ExponentNormalizationTests {
+
+	@Test
+	public void exponentsUpToTheLimitExpandIntoProducts() throws Exception {
+		StringBuilder product = new StringBuilder("(x+1)");
+		for (int exponent = 2; exponent <= ExpressionsConfig.MAX_EXPANDED_EXPONENT; exponent++) {
+			product.append("*(x+1)");
+			assertEquals("exponent " + exponent, tokensOf("(x+1)^" + exponent), tokensOf(product.toString()));
+		}
+	}
+
+	@Test
+	public void exponentsAboveTheLimitStayPowers() throws Exception {
+		int exponent = ExpressionsConfig.MAX_EXPANDED_EXPONENT + 1;
+		ExpressionNode normalized = new Parser().parse("(x+1)^" + exponent).normalize();
+		assertTrue(normalized.getClass().getSimpleName(), normalized instanceof ExponentiationExpressionNode);
+	}
+
+	@Test(timeout = 5000)
+	public void hugeExponentsAreScoredWithoutExpandingThem() {
+		ProceduralSimilarExpressionCalculator calculator = new ProceduralSimilarExpressionCalculator("x^2+3x");
+		Double similarity = calculator.similarityWith("(ln(x))^((6)^(9))");
+		assertTrue(String.valueOf(similarity), similarity >= 0 && similarity <= 1);
+	}
+
+	private static List<String> tokensOf(String expression) throws Exception {
+		return new Parser().parse(expression).normalize().getListOfTokens().stream().map(Object::toString).sorted().collect(Collectors.toList());
+	}
+}
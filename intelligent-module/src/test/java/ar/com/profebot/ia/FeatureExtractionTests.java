@@ -0,0 +1,67 @@
+package ar.com.profebot.ia;
+
+import ia.module.config.NeuralNetworkConfig;
+import ia.module.parser.Operator;
+import ia.module.parser.Parser;
+import ia.module.parser.ProgramTreeConverter;
+import ia.module.parser.tree.ExpressionNode;
+import io.jenetics.ext.util.TreeNode;
+import io.jenetics.prog.ProgramGene;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FeatureExtractionTests {
+
+	@Test
+	public void featuresMatchTheTokenListExtractionOnTheCorpus() {
+		Parser parser = new Parser();
+		ProgramTreeConverter converter = new ProgramTreeConverter();
+		double[] features = new double[NeuralNetworkConfig.INPUTS];
+		int compared = 0;
+		for (ProgramGene<Double> gene : ProgramTreeConverterTests.corpus(500)) {
+			ExpressionNode reference;
+			ExpressionNode expression;
+			try {
+				reference = converter.convert(gene);
+				expression = converter.convert(gene);
+			} catch (Exception e) {
+				continue;
+			}
+			Arrays.fill(features, -1.0);
+			assertArrayEquals(parser.getAsInfix(TreeNode.ofTree(gene)), tokenListFeaturesOf(reference), expression.extractFeaturesForExpression(features), 0.0);
+			compared++;
+		}
+		assertTrue(compared > 400);
+	}
+
+	@Test
+	public void featuresMatchTheTokenListExtractionOnExercises() throws Exception {
+		String[] exercises = {"3(x+1)+5", "2x-5", "x^2+3x", "(x+1)/(x-1)", "sqrt(x+1)", "ln(x)+log(x)", "sin(x)^2+cos(x)^2", "2^(x+1)", "x/2/3", "7", "(x+1)^2"};
+		for (String exercise : exercises) {
+			assertArrayEquals(exercise, tokenListFeaturesOf(new Parser().parse(exercise)), new Parser().parse(exercise).extractFeaturesForExpression(), 0.0);
+		}
+	}
+
+	// The extraction AbstractExpressionNode used before the single tree walk: a prefix increment per token,
+	// then a division by the power of ten above the largest count.
+	private static double[] tokenListFeaturesOf(ExpressionNode expression) {
+		double[] features = new double[NeuralNetworkConfig.INPUTS];
+		for (Operator operator : expression.normalize().getListOfTokens()) {
+			int index = operator.getOperator() > 10 ? operator.getOperator() - 1 : operator.getOperator();
+			for (int i = 0; i <= index; i++) {
+				features[i]++;
+			}
+		}
+		double max = Arrays.stream(features).reduce(0.0, Math::max);
+		long maxOrder = 1L;
+		while (max / maxOrder >= 1.0) {
+			maxOrder *= 10L;
+		}
+		long quotient = maxOrder;
+		return Arrays.stream(features).map(feature -> feature / quotient).toArray();
+	}
+}
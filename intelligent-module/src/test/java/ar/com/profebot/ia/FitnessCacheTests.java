@@ -0,0 +1,121 @@
+package ar.com.profebot.ia;
+
+import ia.module.fitness.ProceduralSimilarExpressionCalculator;
+import ia.module.genetic.algorithm.FitnessCache;
+import ia.module.parser.Parser;
+import ia.module.parser.ProgramTreeConverter;
+import io.jenetics.ext.util.Tree;
+import io.jenetics.ext.util.TreeNode;
+import io.jenetics.prog.ProgramGene;
+import io.jenetics.prog.op.MathOp;
+import io.jenetics.prog.op.Op;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FitnessCacheTests {
+
+	@Test
+	public void commutedSummandsShareAnEntry() throws Exception {
+		Parser parser = new Parser();
+		assertEquals(FitnessCache.keyOf(parser.parse("x+1").toProgramTree()), FitnessCache.keyOf(parser.parse("1+x").toProgramTree()));
+		assertEquals(FitnessCache.keyOf(parser.parse("2x+3").toProgramTree()), FitnessCache.keyOf(parser.parse("3+2x").toProgramTree()));
+		assertNotEquals(FitnessCache.keyOf(parser.parse("x-1").toProgramTree()), FitnessCache.keyOf(parser.parse("1-x").toProgramTree()));
+		assertNotEquals(FitnessCache.keyOf(parser.parse("2x*3").toProgramTree()), FitnessCache.keyOf(parser.parse("3*2x").toProgramTree()));
+		assertNotEquals(FitnessCache.keyOf(parser.parse("x/2").toProgramTree()), FitnessCache.keyOf(parser.parse("2/x").toProgramTree()));
+	}
+
+	@Test
+	public void programsSharingAnEntryScoreTheSame() {
+		ProgramTreeConverter converter = new ProgramTreeConverter();
+		for (String target : new String[]{"3(x+1)+5", "x^2+3x", "(x+1)/(x-1)"}) {
+			ProceduralSimilarExpressionCalculator calculator = new ProceduralSimilarExpressionCalculator(target);
+			for (ProgramGene<Double> gene : ProgramTreeConverterTests.corpus(500)) {
+				TreeNode<Op<Double>> mirrored = mirrored(gene);
+				assertEquals(FitnessCache.keyOf(gene), FitnessCache.keyOf(mirrored));
+				assertEquals(target + " vs " + FitnessCache.keyOf(gene), fitnessOf(calculator, converter, TreeNode.ofTree(gene)), fitnessOf(calculator, converter, mirrored), 1e-12);
+			}
+		}
+	}
+
+	@Test
+	public void concurrentLookupsEvaluateAProgramOnce() throws Exception {
+		FitnessCache<TreeNode<Op<Double>>> cache = new FitnessCache<>(16);
+		TreeNode<Op<Double>> program = new Parser().parse("x+1").toProgramTree();
+		TreeNode<Op<Double>> commuted = new Parser().parse("1+x").toProgramTree();
+		AtomicInteger evaluations = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		int lookups = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(lookups);
+		try {
+			List<Future<Double>> fitnesses = new ArrayList<>();
+			for (int i = 0; i < lookups; i++) {
+				TreeNode<Op<Double>> lookup = i % 2 == 0 ? program : commuted;
+				fitnesses.add(executor.submit(() -> cache.fitnessOf(lookup, candidate -> {
+					evaluations.incrementAndGet();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return 0.5;
+				})));
+			}
+			while (cache.getHits() + cache.getMisses() < lookups) {
+				Thread.sleep(1);
+			}
+			release.countDown();
+			for (Future<Double> fitness : fitnesses) {
+				assertEquals(0.5, fitness.get(5, TimeUnit.SECONDS), 0.0);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(1, evaluations.get());
+		assertEquals(1, cache.getMisses());
+		assertEquals(lookups - 1, cache.getHits());
+	}
+
+	@Test
+	public void failedEvaluationsAreNotCached() throws Exception {
+		FitnessCache<TreeNode<Op<Double>>> cache = new FitnessCache<>(16);
+		TreeNode<Op<Double>> program = new Parser().parse("x+1").toProgramTree();
+		try {
+			cache.fitnessOf(program, candidate -> {
+				throw new IllegalStateException("boom");
+			});
+		} catch (IllegalStateException e) {
+			assertEquals("boom", e.getMessage());
+		}
+		assertEquals(0.25, cache.fitnessOf(program, candidate -> 0.25), 0.0);
+		assertEquals(2, cache.getMisses());
+	}
+
+	private static Double fitnessOf(ProceduralSimilarExpressionCalculator calculator, ProgramTreeConverter converter, TreeNode<Op<Double>> program) {
+		try {
+			return calculator.similarityWith(converter.convert(program));
+		} catch (Exception e) {
+			return calculator.similarityWith(new Parser().getAsInfix(program));
+		}
+	}
+
+	private static TreeNode<Op<Double>> mirrored(Tree<? extends Op<Double>, ?> program) {
+		TreeNode<Op<Double>> node = TreeNode.of(program.getValue());
+		boolean commutative = program.getValue() == MathOp.ADD;
+		for (int i = 0; i < program.childCount(); i++) {
+			node.attach(mirrored(program.getChild(commutative ? program.childCount() - 1 - i : i)));
+		}
+		return node;
+	}
+}
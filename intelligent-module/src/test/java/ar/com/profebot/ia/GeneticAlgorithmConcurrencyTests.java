@@ -0,0 +1,57 @@
+package ar.com.profebot.ia;
+
+import ia.module.fitness.ProceduralSimilarExpressionCalculator;
+import ia.module.genetic.algorithm.GeneticAlgorithm;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertNull;
+
+public class GeneticAlgorithmConcurrencyTests {
+
+	private static final String[] TARGETS = {"3(x+1)", "x^2+3x", "sqrt(x)+2", "2x-5"};
+
+	@Test
+	public void concurrentRunsScoreAgainstTheirOwnTarget() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(TARGETS.length);
+		try {
+			List<Future<String>> failures = new ArrayList<>();
+			for (int i = 0; i < TARGETS.length * 2; i++) {
+				String target = TARGETS[i % TARGETS.length];
+				failures.add(executor.submit(new Run(target)));
+			}
+			for (Future<String> failure : failures) {
+				assertNull(failure.get(5, TimeUnit.MINUTES));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static class Run implements Callable<String> {
+
+		private String target;
+
+		Run(String aTarget) {
+			target = aTarget;
+		}
+
+		@Override
+		public String call() {
+			GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm(target);
+			String expression = geneticAlgorithm.getExpressionMostSimilar();
+			Double expected = new ProceduralSimilarExpressionCalculator(target).similarityWith(expression);
+			if (Math.abs(expected - geneticAlgorithm.getBestFitness()) > 1e-9) {
+				return target + " -> " + expression + ": reported " + geneticAlgorithm.getBestFitness() + ", expected " + expected;
+			}
+			return null;
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package ar.com.profebot.ia;
+
+import ia.module.genetic.algorithm.EvolutionDeadline;
+import ia.module.genetic.algorithm.GeneticAlgorithm;
+import ia.module.genetic.algorithm.Island;
+import ia.module.genetic.algorithm.TerminationPolicy;
+import io.jenetics.Genotype;
+import io.jenetics.IntegerChromosome;
+import io.jenetics.IntegerGene;
+import io.jenetics.Phenotype;
+import io.jenetics.engine.Engine;
+import io.jenetics.util.ISeq;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class IslandTests {
+
+	private static final Function<Genotype<IntegerGene>, Integer> VALUE = genotype -> genotype.getGene().intValue();
+	private static final Engine<IntegerGene, Integer> ENGINE = Engine.builder(VALUE, IntegerChromosome.of(0, 1000))
+			.populationSize(10)
+			.executor((Runnable runnable) -> runnable.run())
+			.maximizing()
+			.build();
+
+	@Test
+	public void welcomeReplacesTheWorstIndividuals() {
+		Island<IntegerGene, Integer> island = new Island<>(ENGINE, population(0, 10));
+		island.welcome(population(500, 2));
+		assertEquals(Arrays.asList(2, 3, 4, 5, 6, 7, 8, 9, 500, 501), fitnessOf(island));
+	}
+
+	@Test
+	public void migrationMovesEachIslandsBestToTheNextOneInTheRing() {
+		List<Island<IntegerGene, Integer>> islands = Arrays.asList(
+				new Island<>(ENGINE, population(0, 10)),
+				new Island<>(ENGINE, population(100, 10)),
+				new Island<>(ENGINE, population(200, 10)));
+		Island.migrate(islands, 2);
+		assertEquals(Arrays.asList(2, 3, 4, 5, 6, 7, 8, 9, 208, 209), fitnessOf(islands.get(0)));
+		assertEquals(Arrays.asList(8, 9, 102, 103, 104, 105, 106, 107, 108, 109), fitnessOf(islands.get(1)));
+		assertEquals(Arrays.asList(108, 109, 202, 203, 204, 205, 206, 207, 208, 209), fitnessOf(islands.get(2)));
+	}
+
+	@Test
+	public void seedsAreToppedUpToThePopulationSize() {
+		assertEquals(10, new Island<>(ENGINE, population(0, 3)).getPopulation().size());
+	}
+
+	@Test
+	public void anEpochRunsItsGenerationsUnlessTheDeadlineExpires() {
+		Island<IntegerGene, Integer> island = new Island<>(ENGINE, population(0, 10));
+		island.evolve(5, EvolutionDeadline.none());
+		assertEquals(5, island.getLastGeneration().getGeneration());
+		island.evolve(5, EvolutionDeadline.none());
+		assertEquals(10, island.getLastGeneration().getGeneration());
+
+		EvolutionDeadline deadline = EvolutionDeadline.after(1, TimeUnit.MINUTES);
+		deadline.cancel();
+		Island<IntegerGene, Integer> expired = new Island<>(ENGINE, population(0, 10));
+		expired.evolve(5, deadline);
+		assertNull(expired.getLastGeneration());
+	}
+
+	@Test
+	public void islandEvolutionStopsAfterTheEpochThatExhaustsTheBudget() {
+		GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm("2x-5")
+				.evolvingOnIslands(2)
+				.terminatingWhen(TerminationPolicy.defaults().withMaxEvaluations(50));
+		geneticAlgorithm.getExpressionMostSimilar();
+		assertEquals(TerminationPolicy.Reason.EVALUATION_BUDGET, geneticAlgorithm.getTerminationReason());
+		assertTrue(geneticAlgorithm.getBestFitness() > 0);
+	}
+
+	private static ISeq<Phenotype<IntegerGene, Integer>> population(int first, int size) {
+		ISeq<Phenotype<IntegerGene, Integer>> population = ISeq.empty();
+		for (int value = first; value < first + size; value++) {
+			Genotype<IntegerGene> genotype = Genotype.of(IntegerChromosome.of(IntegerGene.of(value, 0, 1000)));
+			population = population.append(Phenotype.of(genotype, 1, VALUE));
+		}
+		return population;
+	}
+
+	private static List<Integer> fitnessOf(Island<IntegerGene, Integer> island) {
+		return island.getPopulation().stream().map(Phenotype::getFitness).sorted().collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,67 @@
+package ar.com.profebot.ia;
+
+import ia.module.config.NeuralNetworkConfig;
+import ia.module.extension.KohonenModel;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class KohonenModelTests {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void savedWeightsLoadBackUnchanged() throws IOException {
+		KohonenModel model = KohonenModel.load(weightsFile(0.5));
+		File copy = folder.newFile();
+		model.save(copy);
+
+		double[] input = new double[NeuralNetworkConfig.INPUTS];
+		input[0] = 1.5;
+		assertEquals(model.output(input)[0], KohonenModel.load(copy).output(input)[0], 0.0);
+		assertEquals(Math.sqrt(1 + 0.25 * (NeuralNetworkConfig.INPUTS - 1)), model.output(input)[0], 1e-12);
+	}
+
+	@Test
+	public void loadFailsOnMissingTruncatedOrCorruptWeights() throws IOException {
+		byte[] saved = Files.readAllBytes(weightsFile(0.5).toPath());
+		assertRejected(new File(folder.getRoot(), "missing.weights"));
+		assertRejected(bytesFile(Arrays.copyOf(saved, saved.length - Double.BYTES)));
+		assertRejected(bytesFile(Arrays.copyOf(saved, saved.length + Double.BYTES)));
+		assertRejected(bytesFile(ByteBuffer.wrap(saved.clone()).putDouble(saved.length - Double.BYTES, Double.NaN).array()));
+		assertRejected(bytesFile(ByteBuffer.wrap(saved.clone()).putInt(0, 0).array()));
+		assertRejected(bytesFile(ByteBuffer.wrap(saved.clone()).putInt(Integer.BYTES, NeuralNetworkConfig.INPUTS + 1).array()));
+	}
+
+	private File weightsFile(double weight) throws IOException {
+		double[] weights = new double[NeuralNetworkConfig.INPUTS * NeuralNetworkConfig.OUTPUTS];
+		Arrays.fill(weights, weight);
+		File file = folder.newFile();
+		KohonenModel.of(weights).save(file);
+		return file;
+	}
+
+	private File bytesFile(byte[] bytes) throws IOException {
+		File file = folder.newFile();
+		Files.write(file.toPath(), bytes);
+		return file;
+	}
+
+	private void assertRejected(File file) {
+		try {
+			KohonenModel.load(file);
+			fail("Loaded " + file);
+		} catch (IOException expected) {
+		}
+	}
+}
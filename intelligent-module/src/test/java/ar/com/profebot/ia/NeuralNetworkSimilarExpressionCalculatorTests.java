@@ -0,0 +1,52 @@
+package ar.com.profebot.ia;
+
+import ia.module.config.NeuralNetworkConfig;
+import ia.module.extension.KohonenModel;
+import ia.module.fitness.NeuralNetworkSimilarExpressionCalculator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class NeuralNetworkSimilarExpressionCalculatorTests {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void missingWeightsFailEachConstructionUntilTheyAppear() throws Exception {
+		String weightsFile = NeuralNetworkConfig.TRAINED_WEIGHTS_FILE;
+		File weights = new File(folder.getRoot(), "kohonen.weights");
+		NeuralNetworkConfig.TRAINED_WEIGHTS_FILE = weights.getPath();
+		try {
+			assertConstructionFails(weights);
+			assertConstructionFails(weights);
+
+			Random random = new Random(20180703L);
+			double[] trained = new double[NeuralNetworkConfig.INPUTS * NeuralNetworkConfig.OUTPUTS];
+			for (int i = 0; i < trained.length; i++) {
+				trained[i] = random.nextDouble();
+			}
+			KohonenModel.of(trained).save(weights);
+
+			Double similarity = new NeuralNetworkSimilarExpressionCalculator("3(x+1)+5").similarityWith("2x-5");
+			assertTrue(String.valueOf(similarity), similarity >= 0 && similarity <= 1);
+		} finally {
+			NeuralNetworkConfig.TRAINED_WEIGHTS_FILE = weightsFile;
+		}
+	}
+
+	private static void assertConstructionFails(File weights) {
+		try {
+			new NeuralNetworkSimilarExpressionCalculator("3(x+1)+5");
+			fail("Built a calculator without " + weights);
+		} catch (IllegalStateException expected) {
+			assertTrue(expected.getMessage(), expected.getMessage().contains(weights.getAbsolutePath()));
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package ar.com.profebot.ia;
+
+import ia.module.config.NeuralNetworkConfig;
+import ia.module.parser.Operator;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class OperatorTests {
+
+	@Test
+	public void fibonacciWeightsMatchTheRecursiveList() {
+		List<Long> fibonacci = recursiveFibonacci();
+		for (int token = Operator.N; token <= Operator.INTEGRAL; token++) {
+			long weight = fibonacci.get(token > 10 ? token - 1 : token);
+			assertEquals("token " + token, weight, Operator.getFibonacciWeight(token).longValue());
+			for (int degree = -3; degree <= 200; degree++) {
+				long additional = token == Operator.TERM_WITH_X_BY_TERM_WITH_X ? degree : 0;
+				assertEquals("token " + token + " degree " + degree, weight + additional, Operator.newToken(token, degree).getFibonacciWeight().longValue());
+			}
+		}
+		long sum = 0;
+		for (int token = 0; token < 21; token++) {
+			sum += fibonacci.get(token > 10 ? token - 1 : token);
+		}
+		assertEquals(sum, Operator.getFibonacciWeightsSum().longValue());
+		for (int size = 0; size <= NeuralNetworkConfig.INPUTS; size++) {
+			double[] expected = new double[size];
+			for (int i = 0; i < size; i++) {
+				expected[i] = fibonacci.get(i > 10 ? i - 1 : i);
+			}
+			assertArrayEquals(expected, Operator.getFibonacci(size), 0.0);
+		}
+	}
+
+	@Test
+	public void maskWeightsMatchTheSumOfTheirTokens() {
+		Random random = new Random(20180703L);
+		for (int i = 0; i < 20000; i++) {
+			int mask = random.nextInt(1 << (Operator.INTEGRAL + 1));
+			long expected = 0;
+			for (int token = Operator.N; token <= Operator.INTEGRAL; token++) {
+				if ((mask & 1 << token) != 0) {
+					expected += Operator.getFibonacciWeight(token);
+				}
+			}
+			assertEquals(expected, Operator.getFibonacciWeightOf(mask));
+		}
+	}
+
+	@Test
+	public void tokensCompareLikeTheOverloadedEquals() {
+		int[] degrees = {-1000, -129, -128, -5, -1, 0, 1, 2, 7, 127, 128, 1000};
+		for (int kind = Operator.N; kind <= Operator.INTEGRAL; kind++) {
+			for (int degree : degrees) {
+				Operator token = Operator.newToken(kind, degree);
+				for (int otherKind = Operator.N; otherKind <= Operator.INTEGRAL; otherKind++) {
+					for (int otherDegree : degrees) {
+						Operator other = Operator.newToken(otherKind, otherDegree);
+						String message = token + " vs " + other;
+						assertEquals(message, kind == otherKind, token.sameKindAs(other));
+						assertEquals(message, kind == otherKind && degree == otherDegree, token.totallyEquals(other));
+						assertEquals(message, token.totallyEquals(other), token.equals(other));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void equalTokensShareTheirHashAndAreInternedInTheCachedRange() {
+		for (int kind = Operator.N; kind <= Operator.INTEGRAL; kind++) {
+			for (int degree = -300; degree <= 300; degree++) {
+				Operator token = Operator.newToken(kind, degree);
+				Operator again = Operator.newToken(kind, degree);
+				assertEquals(token, again);
+				assertEquals(token.hashCode(), again.hashCode());
+				assertEquals(kind, token.getOperator());
+				assertEquals(degree, token.getDegree());
+				if (degree >= -128 && degree <= 127) {
+					assertSame(token, again);
+				} else {
+					assertNotSame(token, again);
+				}
+			}
+		}
+	}
+
+	// The lazily grown list Operator used before the weight table.
+	private static List<Long> recursiveFibonacci() {
+		List<Long> fibonacci = new ArrayList<>();
+		fibonacci.add(1L);
+		fibonacci.add(1L);
+		while (fibonacci.size() < NeuralNetworkConfig.INPUTS) {
+			fibonacci.add(fibonacci.get(fibonacci.size() - 1) + fibonacci.get(fibonacci.size() - 2));
+		}
+		return fibonacci;
+	}
+}
@@ -0,0 +1,30 @@
+package ar.com.profebot.ia;
+
+import ia.module.fitness.ProceduralSimilarExpressionCalculator;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ProceduralSimilarExpressionCalculatorTests {
+
+	private static final String[] TARGETS = {"3(x+1)+5", "2x-5", "x^2+3x", "(x+1)/(x-1)", "(x+1)^2", "(2x-1)^3", "sqrt(x+1)+2"};
+
+	@Test
+	public void targetsAreNotSimilarToThemselves() {
+		for (String target : TARGETS) {
+			assertEquals(target, 0.0, new ProceduralSimilarExpressionCalculator(target).similarityWith(target), 0.0);
+		}
+	}
+
+	@Test
+	public void powersAtTheRootAreProfiledLikeTheirExpansion() {
+		ProceduralSimilarExpressionCalculator power = new ProceduralSimilarExpressionCalculator("(x+1)^2");
+		ProceduralSimilarExpressionCalculator expansion = new ProceduralSimilarExpressionCalculator("(x+1)(x+1)");
+		for (String candidate : new String[]{"x^2+2x+1", "2x+1", "(x+1)^3", "3(x+1)^2+5"}) {
+			Double similarity = power.similarityWith(candidate);
+			assertTrue(candidate, similarity > 0);
+			assertEquals(candidate, expansion.similarityWith(candidate), similarity, 1e-12);
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package ar.com.profebot.ia;
+
+import ia.module.config.ExpressionsConfig;
+import ia.module.fitness.ProceduralSimilarExpressionCalculator;
+import ia.module.parser.Parser;
+import ia.module.parser.ProgramTreeConverter;
+import io.jenetics.ext.util.TreeNode;
+import io.jenetics.prog.ProgramChromosome;
+import io.jenetics.prog.ProgramGene;
+import io.jenetics.util.RandomRegistry;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ProgramTreeConverterTests {
+
+	private static final String[] TARGETS = {"3(x+1)+5", "2x-5", "x^2+3x", "(x+1)/(x-1)"};
+
+	@Test
+	public void convertedGenesScoreLikeTheirInfixForm() throws Exception {
+		Parser parser = new Parser();
+		ProgramTreeConverter converter = new ProgramTreeConverter();
+		for (String target : TARGETS) {
+			ProceduralSimilarExpressionCalculator calculator = new ProceduralSimilarExpressionCalculator(target);
+			int scored = 0;
+			for (ProgramGene<Double> gene : corpus(500)) {
+				String infix = parser.getAsInfix(TreeNode.ofTree(gene));
+				Double expected = calculator.similarityWith(infix);
+				assertEquals(target + " vs " + infix, expected, calculator.similarityWith(converter.convert(gene)), 1e-12);
+				scored += expected > 0 ? 1 : 0;
+			}
+			assertTrue(target, scored > 0);
+		}
+	}
+
+	public static List<ProgramGene<Double>> corpus(int size) {
+		return RandomRegistry.with(new Random(20180703L), random -> {
+			List<ProgramGene<Double>> genes = new ArrayList<>();
+			for (int i = 0; i < size; i++) {
+				int depth = 1 + i % 5;
+				genes.add(ProgramChromosome.of(depth, ExpressionsConfig.OPERATIONS, ExpressionsConfig.TERMINALS).getRoot());
+			}
+			return genes;
+		});
+	}
+}
@@ -0,0 +1,56 @@
+package ar.com.profebot.ia;
+
+import ia.module.parser.Parser;
+import ia.module.parser.ProgramTreeConverter;
+import ia.module.parser.tree.AdditionExpressionNode;
+import ia.module.parser.tree.ExpressionNode;
+import ia.module.parser.tree.FunctionExpressionNode;
+import ia.module.parser.tree.VariableExpressionNode;
+import io.jenetics.ext.util.TreeNode;
+import io.jenetics.prog.op.Op;
+import io.jenetics.prog.op.Program;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ProgramTreeRoundTripTests {
+
+	private static final String[] EXPRESSIONS = {
+			"3(x+1)+5", "2x-5", "x^2+3x", "(x+1)/(x-1)", "-x+4", "5-(2x-3)", "2^(x+1)", "x/2/3",
+			"sqrt(x+1)", "ln(x)+log(x)", "sin(x)^2+cos(x)^2", "tan(2x)", "3"
+	};
+
+	@Test
+	public void convertingTheProgramTreeGivesBackAnEquivalentExpression() throws Exception {
+		ProgramTreeConverter converter = new ProgramTreeConverter();
+		for (String expression : EXPRESSIONS) {
+			ExpressionNode original = new Parser().parse(expression);
+			TreeNode<Op<Double>> program = original.toProgramTree();
+			assertNotNull(expression, program);
+
+			ExpressionNode roundTrip = converter.convert(program);
+			TreeNode<Op<Double>> roundTripProgram = roundTrip.toProgramTree();
+			for (double x = -2.5; x <= 2.5; x += 0.5) {
+				assertEquals(expression + " at " + x, Program.eval(program, x), Program.eval(roundTripProgram, x), 1e-9);
+			}
+			assertEquals(expression, tokensOf(original), tokensOf(roundTrip));
+			assertEquals(expression, tokensOf(original), tokensOf(new Parser().parse(new Parser().getAsInfix(program))));
+		}
+	}
+
+	private static List<String> tokensOf(ExpressionNode expression) {
+		return expression.normalize().getListOfTokens().stream().map(Object::toString).sorted().collect(Collectors.toList());
+	}
+
+	@Test
+	public void functionsWithoutProgramOperationsHaveNoProgramTree() throws Exception {
+		ExpressionNode x = new VariableExpressionNode("x");
+		assertNull(new FunctionExpressionNode(FunctionExpressionNode.EXP, x).toProgramTree());
+		assertNull(new AdditionExpressionNode(new FunctionExpressionNode(FunctionExpressionNode.ASIN, x), true).toProgramTree());
+	}
+}
@@ -0,0 +1,25 @@
+package ar.com.profebot.ia;
+
+/**
+ * The replaceAll-based {@code cleanFormatOf} the parser used before the single-pass {@link ia.module.parser.Parser#cleanFormatOf(String)}.
+ * Kept as the reference implementation for {@link CleanFormatTests}.
+ */
+public class RegexCleanFormat {
+
+	public String cleanFormatOf(String expression) {
+		String expressionCleaned = replaceComplexOperatorsNames(expression);
+		expressionCleaned = addMultiplicationSymbols(expressionCleaned);
+		return expressionCleaned.replaceAll("e", "2.718281828459045235360").replaceAll("pi", "3.14159265358979323846").replaceAll("\\)x", ")*x").replaceAll("\\)\\(", ")*(").replaceAll("x\\(", "x*(").replaceAll("dx\\*\\(", "dx(");
+	}
+
+	private String replaceComplexOperatorsNames(String expression) {
+		return expression.replaceAll("derivative", "dx").replaceAll("integral", "int");
+	}
+
+	private String addMultiplicationSymbols(String expression) {
+		for (int i = 0; i <= 9; ++i) {
+			expression = expression.replaceAll(i + "\\(", i + "*(").replaceAll(i + "sqrt", i + "*sqrt").replaceAll(i + "sin", i + "*sin").replaceAll(i + "cos", i + "*cos").replaceAll(i + "tan", i + "*tan").replaceAll(i + "ln", i + "*ln").replaceAll(i + "log", i + "*log").replaceAll(i + "log2b", i + "*log2b").replaceAll(i + "dx", i + "*dx").replaceAll(i + "int", i + "*int").replaceAll(i + "x", i + "*x");
+		}
+		return expression;
+	}
+}
@@ -0,0 +1,69 @@
+package ar.com.profebot.ia;
+
+import ia.module.parser.Token;
+import ia.module.parser.tree.FunctionExpressionNode;
+
+import java.text.ParseException;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The regex-based tokenizer the parser used before the hand-written {@link ia.module.parser.Tokenizer}.
+ * Kept as the reference implementation for {@link TokenizerTests}.
+ */
+public class RegexTokenizer {
+
+	private final List<TokenInfo> tokenInfos = new LinkedList<>();
+
+	public RegexTokenizer() {
+		add("[+-]", Token.PLUSMINUS);
+		add("[*/]", Token.MULTDIV);
+		add("\\^", Token.RAISED);
+		add("(" + FunctionExpressionNode.getAllFunctions() + ")(?!\\w)", Token.FUNCTION);
+		add("\\(", Token.OPEN_BRACKET);
+		add("\\)", Token.CLOSE_BRACKET);
+		add("(?:\\d+\\.?|\\.\\d)\\d*(?:[Ee][-+]?\\d+)?", Token.NUMBER);
+		add("[a-zA-Z]\\w*", Token.VARIABLE);
+	}
+
+	private void add(String regex, int token) {
+		tokenInfos.add(new TokenInfo(Pattern.compile("^(" + regex + ")"), token));
+	}
+
+	public LinkedList<Token> tokenize(String str) throws ParseException {
+		LinkedList<Token> tokens = new LinkedList<>();
+		String s = str.trim();
+		int totalLength = s.length();
+		while (!s.equals("")) {
+			int remaining = s.length();
+			boolean match = false;
+			for (TokenInfo info : tokenInfos) {
+				Matcher m = info.regex.matcher(s);
+				if (m.find()) {
+					match = true;
+					String tok = m.group().trim();
+					s = m.replaceFirst("").trim();
+					tokens.add(new Token(info.token, tok, totalLength - remaining));
+					break;
+				}
+			}
+			if (!match) {
+				throw new ParseException("Unexpected character in input: " + s, totalLength - s.length());
+			}
+		}
+		return tokens;
+	}
+
+	private static class TokenInfo {
+
+		private final Pattern regex;
+		private final int token;
+
+		TokenInfo(Pattern regex, int token) {
+			this.regex = regex;
+			this.token = token;
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package ar.com.profebot.ia;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ResponseCacheTests {
+
+	@Test
+	public void servesTheFirstVariantAndKeepsAskingForTheRest() {
+		ExerciseShape shape = ExerciseShape.of("5(x-2)", "5(x-2)+1", "=");
+		List<EquationsResponse> variants = Arrays.asList(response("x+1"), response("2x"), response("x-3"));
+		assertNull(ResponseCache.get(shape));
+		assertTrue(ResponseCache.needsVariants(shape));
+
+		ResponseCache.put(shape, variants.get(0));
+		assertEquals(variants.get(0), ResponseCache.get(shape));
+		assertTrue(ResponseCache.needsVariants(shape));
+
+		ResponseCache.put(shape, variants.get(1));
+		ResponseCache.put(shape, variants.get(2));
+		assertFalse(ResponseCache.needsVariants(shape));
+		for (int i = 0; i < 20; i++) {
+			assertTrue(variants.contains(ResponseCache.get(ExerciseShape.of("5 (x-2)", "5(x-2) + 1", "="))));
+		}
+	}
+
+	@Test
+	public void emptyResponsesAreNotCached() {
+		ExerciseShape shape = ExerciseShape.of("7x", "", "<");
+		EquationsResponse empty = new EquationsResponse(Arrays.asList(), "<");
+		for (int i = 0; i < 3; i++) {
+			ResponseCache.put(shape, empty);
+		}
+		assertEquals("", empty.getEquations());
+		assertNull(ResponseCache.get(shape));
+	}
+
+	private EquationsResponse response(String expression) {
+		ExpressionResponse valid = new ExpressionResponse(expression, 1.0);
+		return new EquationsResponse(Arrays.asList(valid, valid, valid, valid), "=");
+	}
+}
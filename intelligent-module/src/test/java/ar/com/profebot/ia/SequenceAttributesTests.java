@@ -0,0 +1,64 @@
+package ar.com.profebot.ia;
+
+import ia.module.parser.Parser;
+import ia.module.parser.tree.ExpressionNode;
+import ia.module.parser.tree.SequenceExpressionNode;
+import io.jenetics.ext.util.TreeNode;
+import io.jenetics.prog.ProgramGene;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SequenceAttributesTests {
+
+	private static final String[] EXERCISES = {"3(x+1)+5", "2x-5", "x^2+3x", "(x+1)/(x-1)", "(x+1)^2", "(2x-3)^3+x", "sqrt(x+1)*x", "ln(x^2+1)-x"};
+
+	@Test
+	public void normalizingAQueriedTreeMatchesNormalizingAFreshOne() throws Exception {
+		Parser parser = new Parser();
+		int compared = 0;
+		for (String expression : expressions()) {
+			ExpressionNode queried;
+			try {
+				queried = parser.parse(expression);
+			} catch (Exception e) {
+				continue;
+			}
+			attributesOf(queried);
+			assertEquals(expression, attributesOf(parser.parse(expression).normalize()), attributesOf(queried.normalize()));
+			compared++;
+		}
+		assertTrue(compared > 400);
+	}
+
+	@Test
+	public void addingATermToAQueriedSequenceMatchesParsingTheLongerOne() throws Exception {
+		Parser parser = new Parser();
+		for (String exercise : EXERCISES) {
+			ExpressionNode queried = parser.parse("x^2+" + exercise);
+			attributesOf(queried);
+			((SequenceExpressionNode) queried).add(parser.parse("x^3"), false);
+			assertEquals(exercise, attributesOf(parser.parse("x^2+" + exercise + "-x^3")), attributesOf(queried));
+		}
+	}
+
+	private static List<String> expressions() {
+		Parser parser = new Parser();
+		List<String> expressions = new ArrayList<>();
+		for (String exercise : EXERCISES) {
+			expressions.add(exercise);
+		}
+		for (ProgramGene<Double> gene : ProgramTreeConverterTests.corpus(500)) {
+			expressions.add(parser.getAsInfix(TreeNode.ofTree(gene)));
+		}
+		return expressions;
+	}
+
+	private static String attributesOf(ExpressionNode node) {
+		return node.getLevel() + " " + node.getToken() + " " + node.getDegree() + " " + node.hasVariable() + " " + node.isNumber() + " " + node.getListOfTokens();
+	}
+}
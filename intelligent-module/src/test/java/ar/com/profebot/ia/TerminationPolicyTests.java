@@ -0,0 +1,57 @@
+package ar.com.profebot.ia;
+
+import ia.module.genetic.algorithm.EvolutionDeadline;
+import ia.module.genetic.algorithm.GeneticAlgorithm;
+import ia.module.genetic.algorithm.TerminationPolicy;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TerminationPolicyTests {
+
+	private static final TerminationPolicy POLICY = new TerminationPolicy(0.9, 5, 10, 1000);
+
+	@Test
+	public void expectedFitnessStopsOnlyAfterTheMinimumGenerations() {
+		TerminationPolicy.Run run = POLICY.start(EvolutionDeadline.none());
+		for (int generation = 1; generation < 5; generation++) {
+			assertTrue(run.proceed(generation, 0.95, 10));
+		}
+		assertFalse(run.proceed(5, 0.95, 10));
+		assertEquals(TerminationPolicy.Reason.EXPECTED_FITNESS, run.getReason());
+	}
+
+	@Test
+	public void steadyFitnessCountsGenerationsWithoutImprovement() {
+		TerminationPolicy.Run run = POLICY.start(EvolutionDeadline.none());
+		assertTrue(run.proceed(1, 0.5, 10));
+		assertTrue(run.proceed(6, 0.6, 10));
+		assertTrue(run.proceed(15, 0.6, 10));
+		assertFalse(run.proceed(16, 0.6, 10));
+		assertEquals(TerminationPolicy.Reason.STEADY_FITNESS, run.getReason());
+	}
+
+	@Test
+	public void evaluationBudgetAndDeadlineStopTheRun() {
+		TerminationPolicy.Run budget = POLICY.start(EvolutionDeadline.none());
+		assertFalse(budget.proceed(1, 0.1, 1000));
+		assertEquals(TerminationPolicy.Reason.EVALUATION_BUDGET, budget.getReason());
+
+		EvolutionDeadline deadline = EvolutionDeadline.after(1, TimeUnit.MINUTES);
+		deadline.cancel();
+		TerminationPolicy.Run expired = POLICY.start(deadline);
+		assertFalse(expired.proceed(1, 0.1, 1));
+		assertEquals(TerminationPolicy.Reason.DEADLINE, expired.getReason());
+	}
+
+	@Test
+	public void geneticAlgorithmReportsWhyItStopped() {
+		GeneticAlgorithm geneticAlgorithm = new GeneticAlgorithm("2x-5").terminatingWhen(TerminationPolicy.defaults().withMaxEvaluations(50));
+		geneticAlgorithm.getExpressionMostSimilar();
+		assertEquals(TerminationPolicy.Reason.EVALUATION_BUDGET, geneticAlgorithm.getTerminationReason());
+	}
+}
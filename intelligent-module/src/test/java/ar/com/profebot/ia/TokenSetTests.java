@@ -0,0 +1,241 @@
+package ar.com.profebot.ia;
+
+import ia.module.parser.ExpressionWithArgumentStructure;
+import ia.module.parser.ExpressionsWithArgumentStructures;
+import ia.module.parser.Operator;
+import ia.module.parser.ProgramTreeConverter;
+import ia.module.parser.TokenSet;
+import ia.module.parser.tree.ExpressionNode;
+import io.jenetics.prog.ProgramGene;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Compares {@link TokenSet} and the count-matrix {@link ExpressionsWithArgumentStructures} against the
+ * list-based implementations they replaced, which are kept below as the reference.
+ */
+public class TokenSetTests {
+
+	@Test
+	public void complexityMatchesTheTokenListsOnTheCorpus() throws Exception {
+		ProgramTreeConverter converter = new ProgramTreeConverter();
+		List<List<Operator>> tokens = new ArrayList<>();
+		List<RecordingStructures> structures = new ArrayList<>();
+		for (ProgramGene<Double> gene : ProgramTreeConverterTests.corpus(300)) {
+			ExpressionNode expression;
+			try {
+				expression = converter.convert(gene);
+			} catch (Exception e) {
+				continue;
+			}
+			structures.add((RecordingStructures) expression.getStructureOf(new RecordingStructures()));
+			tokens.add(expression.normalize().getListOfTokens());
+		}
+		for (int i = 0; i < tokens.size(); i++) {
+			for (int j = i; j < tokens.size(); j += 7) {
+				assertSameComplexity(tokens.get(i), tokens.get(j));
+				assertSameStructureCounts(structures.get(i), structures.get(j));
+			}
+		}
+	}
+
+	@Test
+	public void complexityMatchesTheTokenListsOnRandomTokens() {
+		Random random = new Random(20180703L);
+		for (int i = 0; i < 20000; i++) {
+			assertSameComplexity(randomTokens(random), randomTokens(random));
+		}
+	}
+
+	@Test
+	public void structureCountsMatchTheStructureListOnRandomStructures() {
+		Random random = new Random(20180703L);
+		for (int i = 0; i < 20000; i++) {
+			RecordingStructures first = randomStructures(random);
+			RecordingStructures second = randomStructures(random);
+			assertSameStructureCounts(first, second);
+			for (int probe = 0; probe < 4; probe++) {
+				ExpressionWithArgumentStructure structure = new ExpressionWithArgumentStructure(randomToken(random), randomToken(random));
+				assertEquals(first.reference.find(structure) != null, first.has(structure));
+				ListStructure expected = first.reference.find(structure);
+				ExpressionWithArgumentStructure found = first.find(structure);
+				if (expected == null) {
+					assertNull(found);
+				} else {
+					assertEquals(expected.dadToken, found.getDadToken().intValue());
+					assertEquals(expected.childToken, found.getChildToken().intValue());
+					assertEquals(expected.countOfOccurrences, found.getCountOfOccurrences().intValue());
+				}
+			}
+		}
+	}
+
+	private static void assertSameComplexity(List<Operator> original, List<Operator> candidate) {
+		TokenSet originalTokens = TokenSet.of(original);
+		TokenSet candidateTokens = TokenSet.of(candidate);
+		String message = original + " vs " + candidate;
+		assertEquals(message, weightOf(withoutDuplicates(original)), originalTokens.getWeight());
+		assertEquals(message, weightOf(intersectionOf(withoutDuplicates(original), withoutDuplicates(candidate))), originalTokens.intersection(candidateTokens).getWeight());
+		assertEquals(message, weightOf(unionOf(withoutDuplicates(original), withoutDuplicates(candidate))), originalTokens.union(candidateTokens).getWeight());
+	}
+
+	private static void assertSameStructureCounts(RecordingStructures first, RecordingStructures second) {
+		assertEquals(first.reference.countNotIncludedInto(second.reference), first.getCountOfStructuresNotIncludedInto(second).longValue());
+		assertEquals(second.reference.countNotIncludedInto(first.reference), second.getCountOfStructuresNotIncludedInto(first).longValue());
+		assertEquals(first.reference.countOutOfBoundOf(second.reference), first.getCountOfStructuresWithCountOfOccurrencesOutOfBoundOf(second).longValue());
+		assertEquals(second.reference.countOutOfBoundOf(first.reference), second.getCountOfStructuresWithCountOfOccurrencesOutOfBoundOf(first).longValue());
+	}
+
+	private static List<Operator> randomTokens(Random random) {
+		List<Operator> tokens = new ArrayList<>();
+		int size = random.nextInt(10);
+		for (int i = 0; i < size; i++) {
+			int token = random.nextInt(Operator.INTEGRAL + 1);
+			tokens.add(Operator.newToken(token, token == Operator.TERM_WITH_X_BY_TERM_WITH_X ? random.nextInt(8) - 2 : random.nextInt(3)));
+		}
+		return tokens;
+	}
+
+	private static RecordingStructures randomStructures(Random random) {
+		RecordingStructures structures = new RecordingStructures();
+		int size = random.nextInt(12);
+		for (int i = 0; i < size; i++) {
+			structures.addExpressionWithArguments(randomToken(random), randomToken(random));
+		}
+		return structures;
+	}
+
+	private static int randomToken(Random random) {
+		return random.nextBoolean() ? Operator.BY_TERM_WITH_X + random.nextInt(2) : random.nextInt(Operator.INTEGRAL + 1);
+	}
+
+	// The list-based complexity weighting SimilarExpressionCalculator used before TokenSet.
+
+	private static List<Operator> withoutDuplicates(List<Operator> operators) {
+		List<Operator> withoutDuplicates = new ArrayList<>();
+		for (Operator operator : operators) {
+			if (withoutDuplicates.stream().noneMatch(kept -> kept.sameKindAs(operator))) {
+				withoutDuplicates.add(operator);
+			}
+		}
+		int maxDegree = maxDegreeOf(operators);
+		List<Operator> result = new ArrayList<>();
+		for (Operator operator : withoutDuplicates) {
+			result.add(operator.getOperator() == Operator.TERM_WITH_X_BY_TERM_WITH_X ? Operator.newToken(Operator.TERM_WITH_X_BY_TERM_WITH_X, maxDegree) : operator);
+		}
+		return result;
+	}
+
+	private static List<Operator> intersectionOf(List<Operator> original, List<Operator> candidate) {
+		List<Operator> intersection = new ArrayList<>();
+		for (Operator token : original) {
+			if (candidate.stream().anyMatch(other -> other.sameKindAs(token))) {
+				intersection.add(token.getOperator() == Operator.TERM_WITH_X_BY_TERM_WITH_X ? Operator.newToken(Operator.TERM_WITH_X_BY_TERM_WITH_X, Math.min(maxDegreeOf(original), maxDegreeOf(candidate))) : token);
+			}
+		}
+		return intersection;
+	}
+
+	private static List<Operator> unionOf(List<Operator> original, List<Operator> candidate) {
+		List<Operator> union = new ArrayList<>(original);
+		union.addAll(candidate);
+		return withoutDuplicates(union);
+	}
+
+	private static int maxDegreeOf(List<Operator> operators) {
+		return operators.stream().map(token -> token.getOperator() == Operator.TERM_WITH_X_BY_TERM_WITH_X ? token.getDegree() : 0).reduce(0, Math::max);
+	}
+
+	private static long weightOf(List<Operator> operators) {
+		return operators.stream().map(Operator::getFibonacciWeight).reduce(0L, Long::sum);
+	}
+
+	// The list-based ExpressionsWithArgumentStructures, fed alongside the count matrix.
+
+	private static class RecordingStructures extends ExpressionsWithArgumentStructures {
+
+		private final ListStructures reference = new ListStructures();
+
+		@Override
+		public ExpressionsWithArgumentStructures addExpressionWithArguments(Integer dadToken, Integer childToken) {
+			reference.add(dadToken, childToken);
+			return super.addExpressionWithArguments(dadToken, childToken);
+		}
+	}
+
+	private static class ListStructures {
+
+		private final List<ListStructure> structures = new ArrayList<>();
+
+		void add(int dadToken, int childToken) {
+			for (ListStructure structure : structures) {
+				if (structure.dadToken == dadToken && structure.childToken == childToken) {
+					structure.countOfOccurrences++;
+					return;
+				}
+			}
+			structures.add(new ListStructure(dadToken, childToken));
+		}
+
+		long countNotIncludedInto(ListStructures other) {
+			long count = 0;
+			for (ListStructure structure : structures) {
+				if (other.find(structure) == null) {
+					count += structure.diffOfOccurrences(other);
+				}
+			}
+			return count;
+		}
+
+		long countOutOfBoundOf(ListStructures other) {
+			long count = 0;
+			for (ListStructure structure : structures) {
+				ListStructure found = other.find(structure);
+				if (found == null || structure.countOfOccurrences > found.countOfOccurrences) {
+					count += structure.diffOfOccurrences(other);
+				}
+			}
+			return count;
+		}
+
+		ListStructure find(ExpressionWithArgumentStructure structure) {
+			return find(new ListStructure(structure.getDadToken(), structure.getChildToken()));
+		}
+
+		ListStructure find(ListStructure wanted) {
+			for (ListStructure structure : structures) {
+				if ((structure.dadToken == wanted.dadToken && structure.childToken == wanted.childToken) || (structure.isEquivalent() && wanted.isEquivalent())) {
+					return structure;
+				}
+			}
+			return null;
+		}
+	}
+
+	private static class ListStructure {
+
+		private final int dadToken;
+		private final int childToken;
+		private int countOfOccurrences = 1;
+
+		ListStructure(int dadToken, int childToken) {
+			this.dadToken = dadToken;
+			this.childToken = childToken;
+		}
+
+		boolean isEquivalent() {
+			return Operator.equivalentTokens().contains(dadToken) && Operator.equivalentTokens().contains(childToken);
+		}
+
+		int diffOfOccurrences(ListStructures other) {
+			ListStructure found = other.find(this);
+			return found == null ? countOfOccurrences : Math.abs(countOfOccurrences - found.countOfOccurrences);
+		}
+	}
+}
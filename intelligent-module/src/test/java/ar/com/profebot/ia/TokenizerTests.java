@@ -0,0 +1,68 @@
+package ar.com.profebot.ia;
+
+import ia.module.parser.Token;
+import ia.module.parser.Tokenizer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class TokenizerTests {
+
+	private static final String[] FRAGMENTS = {
+			"0", "1", "7", "42", ".", ".5", "3.", "e", "E", "e-", "E+", "x", "y", "ab", "_", "2b",
+			"+", "-", "*", "/", "^", "(", ")", " ", "\t", "#", ",",
+			"sin", "cos", "tan", "asin", "acos", "atan", "sqrt", "exp", "ln", "log", "log2b", "int", "dx",
+			"sinh", "logx", "int2"
+	};
+
+	@Test
+	public void tokenizerMatchesTheRegexTokenizer() {
+		Random random = new Random(20180703L);
+		RegexTokenizer reference = new RegexTokenizer();
+		Tokenizer tokenizer = Tokenizer.getExpressionTokenizer();
+		for (int i = 0; i < 20000; i++) {
+			String input = randomInput(random);
+			assertEquals("'" + input + "'", describe(() -> reference.tokenize(input)), describe(() -> tokenizer.tokenize(input).toList()));
+		}
+	}
+
+	@Test
+	public void tokenizerMatchesTheRegexTokenizerOnExercises() {
+		RegexTokenizer reference = new RegexTokenizer();
+		Tokenizer tokenizer = Tokenizer.getExpressionTokenizer();
+		String[] exercises = {"3(x+1)+5", " 2x - 5 ", "x^2+3x", "sqrt(x)/log2b(x)", "1.5e-3x", ".5x^.25", "sin(x)^2+cos(x)^2"};
+		for (String input : exercises) {
+			assertEquals(input, describe(() -> reference.tokenize(input)), describe(() -> tokenizer.tokenize(input).toList()));
+		}
+	}
+
+	private static String randomInput(Random random) {
+		StringBuilder input = new StringBuilder();
+		int fragments = random.nextInt(12);
+		for (int i = 0; i < fragments; i++) {
+			input.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+		}
+		return input.toString();
+	}
+
+	private static String describe(Tokenization tokenization) {
+		try {
+			List<String> tokens = new ArrayList<>();
+			for (Token token : tokenization.tokenize()) {
+				tokens.add(token.token + ":" + token.sequence + "@" + token.pos);
+			}
+			return tokens.toString();
+		} catch (Exception e) {
+			return "error: " + e.getMessage();
+		}
+	}
+
+	private interface Tokenization {
+
+		List<Token> tokenize() throws Exception;
+	}
+}
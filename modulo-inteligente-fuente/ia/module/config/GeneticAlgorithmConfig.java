@@ -9,6 +9,15 @@ public class GeneticAlgorithmConfig
     public static final double MUTATION_PROB = 0.03;
     public static final double EXPECTED_FITNESS = 0.9;
     public static final int MIN_ITERATIONS = 20;
+    public static final int STEADY_FITNESS_GENERATIONS = 20;
+    public static final long MAX_EVALUATIONS = Long.getLong("ia.module.max.evaluations", Long.MAX_VALUE);
+    public static final int FITNESS_CACHE_SIZE = Integer.getInteger("ia.module.fitness.cache.size", 10000);
+    public static final int EVALUATION_PARALLELISM = Integer.getInteger("ia.module.evaluation.parallelism", Runtime.getRuntime().availableProcessors());
+    public static final int ISLANDS = Integer.getInteger("ia.module.islands", 1);
+    public static final int MIGRATION_INTERVAL = Integer.getInteger("ia.module.migration.interval", 5);
+    public static final int MIGRANTS = Integer.getInteger("ia.module.migrants", 2);
+    public static final double SEEDED_FRACTION = Double.parseDouble(System.getProperty("ia.module.seeded.fraction", "0"));
+    public static final double SEED_MUTATION_PROB = 0.2;
     public static final ProgramChromosome<Double> CHROMOSOME;
     
     static {
@@ -9,6 +9,8 @@ public class NeuralNetworkConfig
     public static double BASE_SIMILARITY_SECONDARY_CATEGORY;
     public static double BASE_SIMILARITY_OTHER_CATEGORY;
     public static double SIMILAR_CATEGORY_LIMIT;
+    public static String TRAINING_PATTERNS_FILE;
+    public static String TRAINED_WEIGHTS_FILE;
     
     static {
         NeuralNetworkConfig.INPUTS = 21;
@@ -18,5 +20,7 @@ public class NeuralNetworkConfig
         NeuralNetworkConfig.BASE_SIMILARITY_SECONDARY_CATEGORY = 0.5;
         NeuralNetworkConfig.BASE_SIMILARITY_OTHER_CATEGORY = 0.0;
         NeuralNetworkConfig.SIMILAR_CATEGORY_LIMIT = 0.01;
+        NeuralNetworkConfig.TRAINING_PATTERNS_FILE = "resources/training/patterns.text";
+        NeuralNetworkConfig.TRAINED_WEIGHTS_FILE = System.getProperty("ia.module.kohonen.weights", "resources/training/kohonen.weights");
     }
 }
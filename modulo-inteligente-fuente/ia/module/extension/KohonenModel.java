@@ -0,0 +1,73 @@
+package ia.module.extension;
+
+import ia.module.config.*;
+import java.io.*;
+
+public class KohonenModel
+{
+    private static final int WEIGHTS_FILE_MAGIC = 1263487054;
+    private final double[] weights;
+    
+    private KohonenModel(final double[] weights) {
+        this.weights = weights;
+    }
+    
+    public static KohonenModel of(final double[] weights) {
+        if (weights.length != NeuralNetworkConfig.INPUTS * NeuralNetworkConfig.OUTPUTS) {
+            throw new IllegalArgumentException("Expected " + NeuralNetworkConfig.INPUTS * NeuralNetworkConfig.OUTPUTS + " Kohonen weights, got " + weights.length);
+        }
+        return new KohonenModel(weights.clone());
+    }
+    
+    public static KohonenModel load(final File file) throws IOException {
+        try (final DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != KohonenModel.WEIGHTS_FILE_MAGIC || input.readInt() != NeuralNetworkConfig.INPUTS || input.readInt() != NeuralNetworkConfig.OUTPUTS) {
+                throw new IOException("Incompatible Kohonen weights file: " + file);
+            }
+            final double[] weights = new double[NeuralNetworkConfig.INPUTS * NeuralNetworkConfig.OUTPUTS];
+            for (int i = 0; i < weights.length; ++i) {
+                weights[i] = input.readDouble();
+                if (Double.isNaN(weights[i]) || Double.isInfinite(weights[i])) {
+                    throw new IOException("Corrupt Kohonen weights file: " + file);
+                }
+            }
+            if (input.read() != -1) {
+                throw new IOException("Corrupt Kohonen weights file: " + file);
+            }
+            return new KohonenModel(weights);
+        }
+    }
+    
+    public void save(final File file) throws IOException {
+        try (final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            output.writeInt(KohonenModel.WEIGHTS_FILE_MAGIC);
+            output.writeInt(NeuralNetworkConfig.INPUTS);
+            output.writeInt(NeuralNetworkConfig.OUTPUTS);
+            for (final double weight : this.weights) {
+                output.writeDouble(weight);
+            }
+        }
+    }
+    
+    public double[] getWeights() {
+        return this.weights.clone();
+    }
+    
+    public double[] output(final double[] input) {
+        return this.output(input, new double[NeuralNetworkConfig.OUTPUTS]);
+    }
+    
+    public double[] output(final double[] input, final double[] output) {
+        final double[] weights = this.weights;
+        final int inputs = NeuralNetworkConfig.INPUTS;
+        for (int neuron = 0, offset = 0; neuron < NeuralNetworkConfig.OUTPUTS; ++neuron, offset += inputs) {
+            double sum = 0.0;
+            for (int i = 0; i < inputs; ++i) {
+                final double diff = input[i] - weights[offset + i];
+                sum += diff * diff;
+            }
+            output[neuron] = Math.sqrt(sum);
+        }
+        return output;
+    }
+}
@@ -0,0 +1,90 @@
+package ia.module.extension;
+
+import ia.module.config.*;
+import ia.module.parser.*;
+import org.neuroph.core.data.*;
+import org.neuroph.core.*;
+import java.io.*;
+import java.util.*;
+
+public class KohonenTrainer
+{
+    private static final double VERIFICATION_EPSILON = 1.0E-9;
+    
+    public static void main(final String[] args) throws IOException {
+        final boolean verifyOnly = args.length > 0 && args[0].equals("verify");
+        final int first = verifyOnly ? 1 : 0;
+        final File patterns = new File((args.length > first) ? args[first] : NeuralNetworkConfig.TRAINING_PATTERNS_FILE);
+        final File weights = new File((args.length > first + 1) ? args[first + 1] : NeuralNetworkConfig.TRAINED_WEIGHTS_FILE);
+        final List<double[]> inputs = readPatterns(patterns);
+        final FixedKohonen network = new FixedKohonen(NeuralNetworkConfig.INPUTS, NeuralNetworkConfig.OUTPUTS);
+        final KohonenModel model;
+        if (verifyOnly) {
+            model = KohonenModel.load(weights);
+            network.setWeights(model.getWeights());
+        }
+        else {
+            final DataSet trainingSet = new DataSet(NeuralNetworkConfig.INPUTS);
+            for (final double[] input : inputs) {
+                trainingSet.addRow(input);
+            }
+            network.learn(trainingSet);
+            model = modelOf(network);
+        }
+        verify(model, network, inputs);
+        if (!verifyOnly) {
+            model.save(weights);
+            System.out.println("Kohonen weights trained from " + patterns + " written to " + weights);
+        }
+    }
+    
+    public static KohonenModel modelOf(final NeuralNetwork network) {
+        final Double[] networkWeights = network.getWeights();
+        final double[] weights = new double[networkWeights.length];
+        for (int i = 0; i < weights.length; ++i) {
+            weights[i] = networkWeights[i];
+        }
+        return KohonenModel.of(weights);
+    }
+    
+    public static double maxDifference(final KohonenModel model, final NeuralNetwork network, final Iterable<double[]> inputs) {
+        final double[] output = new double[NeuralNetworkConfig.OUTPUTS];
+        double maxDifference = 0.0;
+        for (final double[] input : inputs) {
+            network.setInput(input);
+            network.calculate();
+            final double[] expected = network.getOutput();
+            model.output(input, output);
+            for (int i = 0; i < output.length; ++i) {
+                maxDifference = Math.max(maxDifference, Math.abs(expected[i] - output[i]));
+            }
+        }
+        return maxDifference;
+    }
+    
+    public static void verify(final KohonenModel model, final NeuralNetwork network, final List<double[]> inputs) {
+        final double maxDifference = maxDifference(model, network, inputs);
+        System.out.println("Kohonen outputs checked against Neuroph over " + inputs.size() + " patterns, max |difference| " + maxDifference);
+        if (!(maxDifference < KohonenTrainer.VERIFICATION_EPSILON)) {
+            throw new IllegalStateException("Kohonen outputs differ from Neuroph by " + maxDifference);
+        }
+    }
+    
+    public static List<double[]> readPatterns(final File patterns) throws IOException {
+        final List<double[]> inputs = new ArrayList<double[]>();
+        try (final BufferedReader bufferedReader = new BufferedReader(new FileReader(patterns))) {
+            int lineNumber = 0;
+            String line;
+            while ((line = bufferedReader.readLine()) != null) {
+                ++lineNumber;
+                try {
+                    inputs.add(new Parser().parse(line).extractFeaturesForExpression());
+                }
+                catch (Exception e) {
+                    throw new IOException("Invalid training pattern at " + patterns + ":" + lineNumber + ": " + line, e);
+                }
+            }
+        }
+        return inputs;
+    }
+}
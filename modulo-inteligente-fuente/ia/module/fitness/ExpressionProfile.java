@@ -0,0 +1,35 @@
+package ia.module.fitness;
+
+import ia.module.parser.*;
+import java.util.*;
+
+public class ExpressionProfile
+{
+    private final Integer level;
+    private final ExpressionsWithArgumentStructures structures;
+    private final TokenSet normalizedTokens;
+    private final List<Operator> syntacticTokens;
+    
+    public ExpressionProfile(final Integer level, final ExpressionsWithArgumentStructures structures, final TokenSet normalizedTokens, final List<Operator> syntacticTokens) {
+        this.level = level;
+        this.structures = structures;
+        this.normalizedTokens = normalizedTokens;
+        this.syntacticTokens = Collections.unmodifiableList(syntacticTokens);
+    }
+    
+    public Integer getLevel() {
+        return this.level;
+    }
+    
+    public ExpressionsWithArgumentStructures getStructures() {
+        return this.structures;
+    }
+    
+    public TokenSet getNormalizedTokens() {
+        return this.normalizedTokens;
+    }
+    
+    public List<Operator> getSyntacticTokens() {
+        return this.syntacticTokens;
+    }
+}
@@ -3,23 +3,26 @@ package ia.module.fitness;
 import ia.module.extension.*;
 import ia.module.parser.tree.*;
 import ia.module.config.*;
-import org.neuroph.core.data.*;
 import java.io.*;
+import java.util.*;
 import ia.module.parser.*;
 
 public class NeuralNetworkSimilarExpressionCalculator extends SimilarExpressionCalculator
 {
-    private FixedKohonen network;
+    private static final ThreadLocal<double[]> CANDIDATE_INPUT;
+    private static final ThreadLocal<double[]> CANDIDATE_OUTPUT;
+    private static KohonenModel NETWORK;
+    private final KohonenModel network;
     public double[] originalExpressionInput;
     public double[] originalExpressionOutput;
     
     public NeuralNetworkSimilarExpressionCalculator(final String original) {
         super(original);
-        this.trainNetwork();
+        this.network = getNetwork();
         try {
             final ExpressionNode expressionNode = new Parser().parse(original);
             this.originalExpressionInput = expressionNode.extractFeaturesForExpression();
-            this.originalExpressionOutput = this.calculateOutput(expressionNode);
+            this.originalExpressionOutput = this.network.output(this.originalExpressionInput);
         }
         catch (Exception e) {
             e.printStackTrace();
@@ -28,15 +31,27 @@ public class NeuralNetworkSimilarExpressionCalculator extends SimilarExpressionC
     
     @Override
     public Double similarityWith(final String otherExpression) {
-        double[] otherExpressionInput = new double[NeuralNetworkConfig.INPUTS];
-        double[] otherExpressionOutput = new double[NeuralNetworkConfig.OUTPUTS];
         try {
-            final ExpressionNode expressionNode = new Parser().parse(otherExpression);
-            otherExpressionInput = expressionNode.extractFeaturesForExpression();
-            otherExpressionOutput = this.calculateOutput(expressionNode);
+            return this.similarityWith(new Parser().parse(otherExpression));
         }
         catch (Exception e) {
             e.printStackTrace();
+            return this.similarity(new double[NeuralNetworkConfig.INPUTS], new double[NeuralNetworkConfig.OUTPUTS]);
+        }
+    }
+    
+    @Override
+    public Double similarityWith(final ExpressionNode expressionNode) {
+        final double[] otherExpressionInput = NeuralNetworkSimilarExpressionCalculator.CANDIDATE_INPUT.get();
+        final double[] otherExpressionOutput = NeuralNetworkSimilarExpressionCalculator.CANDIDATE_OUTPUT.get();
+        try {
+            expressionNode.extractFeaturesForExpression(otherExpressionInput);
+            this.network.output(otherExpressionInput, otherExpressionOutput);
+        }
+        catch (Exception e) {
+            e.printStackTrace();
+            Arrays.fill(otherExpressionInput, 0.0);
+            Arrays.fill(otherExpressionOutput, 0.0);
         }
         return this.similarity(otherExpressionInput, otherExpressionOutput);
     }
@@ -62,41 +77,23 @@ public class NeuralNetworkSimilarExpressionCalculator extends SimilarExpressionC
         return ratio;
     }
     
-    private void trainNetwork() {
-        this.network = new FixedKohonen(NeuralNetworkConfig.INPUTS, NeuralNetworkConfig.OUTPUTS);
-        this.trainWithExamples();
+    public static synchronized KohonenModel getNetwork() {
+        if (NeuralNetworkSimilarExpressionCalculator.NETWORK == null) {
+            NeuralNetworkSimilarExpressionCalculator.NETWORK = loadNetwork();
+        }
+        return NeuralNetworkSimilarExpressionCalculator.NETWORK;
     }
     
-    private void trainWithExamples() {
+    private static KohonenModel loadNetwork() {
+        final File weights = new File(NeuralNetworkConfig.TRAINED_WEIGHTS_FILE);
         try {
-            final DataSet ds = new DataSet(NeuralNetworkConfig.INPUTS);
-            final File file = new File("resources/training/patterns.text");
-            final FileReader fileReader = new FileReader(file);
-            final BufferedReader bufferedReader = new BufferedReader(fileReader);
-            String line;
-            while ((line = bufferedReader.readLine()) != null) {
-                final ExpressionNode expressionNode = new Parser().parse(line);
-                ds.addRow(expressionNode.extractFeaturesForExpression());
-            }
-            this.network.learn(ds);
-            fileReader.close();
+            return KohonenModel.load(weights);
         }
-        catch (Exception e) {
-            System.out.println("Error: " + e);
+        catch (IOException e) {
+            throw new IllegalStateException("Cannot load the Kohonen weights from " + weights.getAbsolutePath() + ", produce them offline with " + KohonenTrainer.class.getName(), e);
         }
     }
     
-    private double[] calculateOutput(final ExpressionNode expression) {
-        final double[] input = expression.extractFeaturesForExpression();
-        this.network.setInput(input);
-        this.network.calculate();
-        final double[] output = this.network.getOutput();
-        final DataSet ds = new DataSet(NeuralNetworkConfig.INPUTS);
-        ds.addRow(input);
-        this.network.learn(ds);
-        return output;
-    }
-    
     private void print(final double[] vector, final Integer size) {
         String line = "(";
         for (int i = 0; i < size; ++i) {
@@ -118,4 +115,9 @@ public class NeuralNetworkSimilarExpressionCalculator extends SimilarExpressionC
         }
         return category;
     }
+    
+    static {
+        CANDIDATE_INPUT = ThreadLocal.withInitial(() -> new double[NeuralNetworkConfig.INPUTS]);
+        CANDIDATE_OUTPUT = ThreadLocal.withInitial(() -> new double[NeuralNetworkConfig.OUTPUTS]);
+    }
 }
@@ -3,8 +3,6 @@ package ia.module.fitness;
 import ia.module.parser.tree.*;
 import ia.module.parser.*;
 import java.util.*;
-import java.util.function.*;
-import java.util.stream.*;
 
 public abstract class SimilarExpressionCalculator
 {
@@ -12,6 +10,8 @@ public abstract class SimilarExpressionCalculator
     
     public abstract Double similarityWith(final String p0);
     
+    public abstract Double similarityWith(final ExpressionNode p0);
+    
     SimilarExpressionCalculator(final String expression) {
         this.originalExpression = expression;
     }
@@ -20,35 +20,21 @@ public abstract class SimilarExpressionCalculator
         return this.removeDuplicates(expressionNode.normalize().getListOfTokens());
     }
     
+    protected TokenSet getTokenSetOfNormalizedExpression(final ExpressionNode expressionNode) {
+        return TokenSet.of(expressionNode.normalize().getListOfTokens());
+    }
+    
     protected List<Operator> removeDuplicates(final List<Operator> operators) {
+        final TokenSet tokens = TokenSet.of(operators);
         final List<Operator> operatorsWithoutDuplicates = new ArrayList<Operator>();
-        for (final Operator operator2 : operators) {
-            if (operatorsWithoutDuplicates.stream().noneMatch(operator1 -> operator1.equals(operator2))) {
-                operatorsWithoutDuplicates.add(new Operator(operator2.getOperator(), operator2.getDegree()));
+        int seen = 0;
+        for (final Operator operator : operators) {
+            final int token = operator.getOperator();
+            if ((seen & 1 << token) == 0) {
+                seen |= 1 << token;
+                operatorsWithoutDuplicates.add((token == Operator.TERM_WITH_X_BY_TERM_WITH_X) ? Operator.newToken(token, tokens.getDegree()) : operator);
             }
         }
-        return this.chooseTermWithVariableByTermWithVariableDegree(operators, operatorsWithoutDuplicates, true);
-    }
-    
-    private List<Operator> chooseTermWithVariableByTermWithVariableDegree(final List<Operator> reference, final List<Operator> result, final Boolean chooseMax) {
-        final Integer maxDegree = reference.stream().filter(operator -> operator.getOperator().equals(12)).map((Function<? super Object, ? extends Integer>)Operator::getDegree).reduce(0, Math::max);
-        if (chooseMax) {
-            final Integer degreeToUse = maxDegree;
-        }
-        else {
-            final Integer degreeToUse = reference.stream().filter(operator -> operator.getOperator().equals(12)).map((Function<? super Object, ? extends Integer>)Operator::getDegree).reduce(maxDegree, Math::min);
-        }
-        final Integer degree;
-        final Operator operator2;
-        return result.stream().map(operator -> {
-            if (operator.getOperator().equals(12)) {
-                // new(ia.module.parser.Operator.class)
-                new Operator(operator.getOperator(), degree);
-            }
-            else {
-                operator2 = operator;
-            }
-            return operator2;
-        }).collect((Collector<? super Object, ?, List<Operator>>)Collectors.toList());
+        return operatorsWithoutDuplicates;
     }
 }
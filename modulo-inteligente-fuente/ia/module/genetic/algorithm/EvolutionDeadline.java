@@ -0,0 +1,46 @@
+package ia.module.genetic.algorithm;
+
+import java.util.function.*;
+import java.util.concurrent.*;
+
+public class EvolutionDeadline
+{
+    private final long deadline;
+    private volatile boolean cancelled;
+    
+    private EvolutionDeadline(final long deadline) {
+        this.deadline = deadline;
+        this.cancelled = false;
+    }
+    
+    public static EvolutionDeadline after(final long timeout, final TimeUnit unit) {
+        return new EvolutionDeadline(System.nanoTime() + unit.toNanos(timeout));
+    }
+    
+    public static EvolutionDeadline none() {
+        return new EvolutionDeadline(Long.MAX_VALUE);
+    }
+    
+    public void cancel() {
+        this.cancelled = true;
+    }
+    
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+    
+    public boolean isExpired() {
+        return this.cancelled || (this.deadline != Long.MAX_VALUE && System.nanoTime() - this.deadline >= 0L);
+    }
+    
+    public long remaining(final TimeUnit unit) {
+        if (this.deadline == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        return unit.convert(Math.max(0L, this.deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+    
+    public <T> Predicate<T> proceed() {
+        return result -> !this.isExpired();
+    }
+}
@@ -0,0 +1,117 @@
+package ia.module.genetic.algorithm;
+
+import io.jenetics.ext.util.*;
+import io.jenetics.prog.op.*;
+import java.util.function.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.*;
+
+public class FitnessCache<T extends Tree<? extends Op<Double>, T>>
+{
+    private final Map<String, FutureTask<Double>> fitnessByProgram;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    
+    public FitnessCache(final int maxSize) {
+        this.fitnessByProgram = new LruMap<String, FutureTask<Double>>(maxSize);
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+    }
+    
+    public Double fitnessOf(final T program, final Function<T, Double> fitnessFunction) {
+        final String key = keyOf(program);
+        final FutureTask<Double> evaluation = new FutureTask<Double>(() -> fitnessFunction.apply(program));
+        final FutureTask<Double> fitness;
+        synchronized (this.fitnessByProgram) {
+            fitness = this.fitnessByProgram.putIfAbsent(key, evaluation);
+        }
+        if (fitness != null) {
+            this.hits.incrementAndGet();
+            return this.valueOf(key, fitness, program, fitnessFunction);
+        }
+        this.misses.incrementAndGet();
+        evaluation.run();
+        return this.valueOf(key, evaluation, program, fitnessFunction);
+    }
+    
+    private Double valueOf(final String key, final FutureTask<Double> fitness, final T program, final Function<T, Double> fitnessFunction) {
+        try {
+            return fitness.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return fitnessFunction.apply(program);
+        }
+        catch (ExecutionException e) {
+            synchronized (this.fitnessByProgram) {
+                this.fitnessByProgram.remove(key, fitness);
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException)e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error)e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+    
+    public long getHits() {
+        return this.hits.get();
+    }
+    
+    public long getMisses() {
+        return this.misses.get();
+    }
+    
+    public static String keyOf(final Tree<? extends Op<Double>, ?> program) {
+        final StringBuilder key = new StringBuilder();
+        appendKey(program, key);
+        return key.toString();
+    }
+    
+    private static void appendKey(final Tree<? extends Op<Double>, ?> program, final StringBuilder key) {
+        if (program.isLeaf()) {
+            key.append(program.getValue().toString());
+            return;
+        }
+        final List<String> operands = new ArrayList<String>();
+        for (int i = 0; i < program.childCount(); ++i) {
+            final StringBuilder operand = new StringBuilder();
+            appendKey(program.getChild(i), operand);
+            operands.add(operand.toString());
+        }
+        if (hasInterchangeableOperands(program.getValue())) {
+            Collections.sort(operands);
+        }
+        key.append(program.getValue().name()).append('(').append(String.join(",", operands)).append(')');
+    }
+    
+    private static boolean hasInterchangeableOperands(final Op<Double> operation) {
+        return operation == MathOp.ADD;
+    }
+    
+    @Override
+    public String toString() {
+        final long hits = this.getHits();
+        final long total = hits + this.getMisses();
+        return "Fitness cache: " + hits + " hits, " + this.getMisses() + " misses, hit rate " + ((total == 0L) ? 0.0 : (hits / (double)total));
+    }
+    
+    private static class LruMap<K, V> extends LinkedHashMap<K, V>
+    {
+        private static final long serialVersionUID = 1L;
+        private final int maxSize;
+        
+        public LruMap(final int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+        
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+            return this.size() > this.maxSize;
+        }
+    }
+}
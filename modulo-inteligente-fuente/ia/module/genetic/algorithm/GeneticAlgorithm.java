@@ -6,49 +6,232 @@ import ia.module.parser.*;
 import io.jenetics.ext.util.*;
 import io.jenetics.prog.op.*;
 import io.jenetics.ext.*;
-import java.util.function.*;
 import io.jenetics.engine.*;
-import java.util.stream.*;
 import ia.module.config.*;
 import io.jenetics.*;
+import java.util.concurrent.*;
 import io.jenetics.util.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
 
 public class GeneticAlgorithm
 {
-    private static SimilarExpressionCalculator SIMILAR_EXPRESSION_CALCULATOR;
     private static final Codec<ProgramGene<Double>, ProgramGene<Double>> CODEC;
+    private final String target;
+    private final SimilarExpressionCalculator similarExpressionCalculator;
+    private Executor evaluationExecutor;
+    private int islands;
+    private double seededFraction;
+    private final TreeNode<Op<Double>> targetProgram;
+    private TerminationPolicy terminationPolicy;
+    private volatile TerminationPolicy.Run termination;
+    private final AtomicLong evaluations;
+    private volatile Phenotype<ProgramGene<Double>, Double> bestPhenotype;
+    private volatile FitnessCache<ProgramGene<Double>> fitnessCache;
     
     public GeneticAlgorithm(final String candidate) {
-        GeneticAlgorithm.SIMILAR_EXPRESSION_CALCULATOR = new ProceduralSimilarExpressionCalculator(candidate);
+        this(candidate, false);
     }
     
     public GeneticAlgorithm(final String candidate, final Boolean useNeuralNetworkFitness) {
-        GeneticAlgorithm.SIMILAR_EXPRESSION_CALCULATOR = (((boolean)useNeuralNetworkFitness) ? new NeuralNetworkSimilarExpressionCalculator(candidate) : new ProceduralSimilarExpressionCalculator(candidate));
+        this.target = candidate;
+        this.similarExpressionCalculator = (((boolean)useNeuralNetworkFitness) ? new NeuralNetworkSimilarExpressionCalculator(candidate) : new ProceduralSimilarExpressionCalculator(candidate));
+        this.evaluationExecutor = Runnable::run;
+        this.islands = GeneticAlgorithmConfig.ISLANDS;
+        this.seededFraction = GeneticAlgorithmConfig.SEEDED_FRACTION;
+        this.targetProgram = programOf(candidate);
+        this.terminationPolicy = TerminationPolicy.defaults();
+        this.termination = null;
+        this.evaluations = new AtomicLong();
+        this.bestPhenotype = null;
+        this.fitnessCache = null;
     }
     
-    private static final Double fitnessFunction(final ProgramGene<Double> expression) {
-        final String otherExpression = new Parser().getAsInfix((TreeNode<Op<Double>>)TreeNode.ofTree((Tree)expression));
-        return GeneticAlgorithm.SIMILAR_EXPRESSION_CALCULATOR.similarityWith(otherExpression);
+    public GeneticAlgorithm evaluatingOn(final Executor executor) {
+        this.evaluationExecutor = executor;
+        return this;
+    }
+    
+    public GeneticAlgorithm evaluatingInParallel() {
+        if (GeneticAlgorithmConfig.EVALUATION_PARALLELISM <= 1) {
+            return this.evaluatingOn(Runnable::run);
+        }
+        return this.evaluatingOn(EvaluationPool.INSTANCE);
+    }
+    
+    public GeneticAlgorithm evolvingOnIslands(final int islands) {
+        this.islands = Math.max(1, islands);
+        return this;
+    }
+    
+    public GeneticAlgorithm seedingFromTarget(final double fraction) {
+        this.seededFraction = Math.max(0.0, Math.min(1.0, fraction));
+        return this;
+    }
+    
+    public GeneticAlgorithm terminatingWhen(final TerminationPolicy terminationPolicy) {
+        this.terminationPolicy = terminationPolicy;
+        return this;
+    }
+    
+    private static TreeNode<Op<Double>> programOf(final String expression) {
+        try {
+            return new Parser().parse(expression).toProgramTree();
+        }
+        catch (Exception e) {
+            return null;
+        }
+    }
+    
+    private ISeq<Phenotype<ProgramGene<Double>, Double>> seedsFor(final Engine<ProgramGene<Double>, Double> engine) {
+        final int count = (int)(engine.getPopulationSize() * this.seededFraction);
+        if (count <= 0 || this.targetProgram == null) {
+            return ISeq.empty();
+        }
+        final ProgramChromosome<Double> target = ProgramChromosome.of(this.targetProgram, ExpressionsConfig.OPERATIONS, ExpressionsConfig.TERMINALS);
+        final String targetKey = FitnessCache.keyOf(target.getRoot());
+        final List<Phenotype<ProgramGene<Double>, Double>> seeds = new ArrayList<Phenotype<ProgramGene<Double>, Double>>();
+        for (int i = 0; i < count; ++i) {
+            final ProgramChromosome<Double> seed = perturbed(target);
+            if (!FitnessCache.keyOf(seed.getRoot()).equals(targetKey)) {
+                seeds.add(Phenotype.of(Genotype.of(seed), 1L, engine.getFitnessFunction(), engine.getFitnessScaler()));
+            }
+        }
+        return ISeq.of(seeds);
+    }
+    
+    private static ProgramChromosome<Double> perturbed(final ProgramChromosome<Double> chromosome) {
+        final Random random = RandomRegistry.getRandom();
+        final int forced = random.nextInt(chromosome.length());
+        final MSeq<ProgramGene<Double>> genes = chromosome.toSeq().copy();
+        for (int i = 0; i < genes.length(); ++i) {
+            if (i == forced || random.nextDouble() < GeneticAlgorithmConfig.SEED_MUTATION_PROB) {
+                genes.set(i, genes.get(i).newInstance());
+            }
+        }
+        return chromosome.newInstance(genes.toISeq());
+    }
+    
+    private Double fitnessFunction(final ProgramGene<Double> expression) {
+        this.evaluations.incrementAndGet();
+        try {
+            return this.similarExpressionCalculator.similarityWith(new ProgramTreeConverter().convert(expression));
+        }
+        catch (Exception e) {
+            final String otherExpression = new Parser().getAsInfix(TreeNode.ofTree(expression));
+            return this.similarExpressionCalculator.similarityWith(otherExpression);
+        }
     }
     
     public String getExpressionMostSimilar() {
-        final Engine<ProgramGene<Double>, Double> engine = (Engine<ProgramGene<Double>, Double>)Engine.builder((Function)GeneticAlgorithm::fitnessFunction, (Codec)GeneticAlgorithm.CODEC).alterers((Alterer)new Mutator(0.03), new Alterer[] { new SingleNodeCrossover() }).populationSize(100).executor(Runnable::run).maximizing().build();
-        final Phenotype<ProgramGene<Double>, Double> bestExpression = (Phenotype<ProgramGene<Double>, Double>)engine.stream().limit(Limits.bySteadyFitness(20)).peek((Consumer)GeneticAlgorithm::showGeneration).collect(EvolutionResult.toBestPhenotype());
-        final TreeNode bestCandidate = TreeNode.ofTree((Tree)bestExpression.getGenotype().getGene());
-        return new Parser().getAsInfix((TreeNode<Op<Double>>)bestCandidate);
+        return this.getExpressionMostSimilar(EvolutionDeadline.none());
+    }
+    
+    public String getExpressionMostSimilar(final EvolutionDeadline deadline) {
+        final FitnessCache<ProgramGene<Double>> fitnessCache = new FitnessCache<ProgramGene<Double>>(GeneticAlgorithmConfig.FITNESS_CACHE_SIZE);
+        this.fitnessCache = fitnessCache;
+        final Engine<ProgramGene<Double>, Double> engine = Engine.builder((ProgramGene<Double> expression) -> deadline.isExpired() ? 0.0 : fitnessCache.fitnessOf(expression, this::fitnessFunction), GeneticAlgorithm.CODEC).alterers(new Mutator<>(GeneticAlgorithmConfig.MUTATION_PROB), new SingleNodeCrossover<>()).populationSize(GeneticAlgorithmConfig.INITIAL_POPULATION_SIZE).executor((this.islands > 1) ? Runnable::run : this.evaluationExecutor).maximizing().build();
+        final TerminationPolicy.Run termination = this.terminationPolicy.start(deadline);
+        this.termination = termination;
+        if (this.islands > 1) {
+            this.evolveOnIslands(engine, termination, deadline);
+        }
+        else {
+            final EvolutionStart<ProgramGene<Double>, Double> start = EvolutionStart.of(this.seedsFor(engine), 1L);
+            engine.stream(() -> start).limit(generation -> this.proceed(termination, generation)).forEach(this::showGeneration);
+        }
+        return this.getBestExpression();
     }
     
-    public static void showGeneration(final EvolutionResult<ProgramGene<Double>, Double> generation) {
-        final TreeNode bestCandidate = TreeNode.ofTree((Tree)generation.getBestPhenotype().getGenotype().getGene());
-        final String candidateAsInfix = new Parser().getAsInfix((TreeNode<Op<Double>>)bestCandidate);
-        System.out.println("Generation: " + generation.getGeneration() + "; Best fitness: " + GeneticAlgorithm.SIMILAR_EXPRESSION_CALCULATOR.similarityWith(candidateAsInfix) + "; Best genotype: " + candidateAsInfix);
+    private boolean proceed(final TerminationPolicy.Run termination, final EvolutionResult<ProgramGene<Double>, Double> generation) {
+        this.keepBest(generation);
+        return termination.proceed(generation.getGeneration(), this.getBestFitness(), this.evaluations.get());
+    }
+    
+    private void evolveOnIslands(final Engine<ProgramGene<Double>, Double> engine, final TerminationPolicy.Run termination, final EvolutionDeadline deadline) {
+        final List<Island<ProgramGene<Double>, Double>> islands = new ArrayList<Island<ProgramGene<Double>, Double>>();
+        for (int i = 0; i < this.islands; ++i) {
+            islands.add(new Island<ProgramGene<Double>, Double>(engine, this.seedsFor(engine)));
+        }
+        long lastGeneration = 0L;
+        do {
+            final CompletableFuture<?>[] epochs = new CompletableFuture<?>[islands.size()];
+            for (int i = 0; i < epochs.length; ++i) {
+                final Island<ProgramGene<Double>, Double> island = islands.get(i);
+                epochs[i] = CompletableFuture.runAsync(() -> island.evolve(GeneticAlgorithmConfig.MIGRATION_INTERVAL, deadline), this.evaluationExecutor);
+            }
+            CompletableFuture.allOf(epochs).join();
+            EvolutionResult<ProgramGene<Double>, Double> bestGeneration = null;
+            for (final Island<ProgramGene<Double>, Double> island : islands) {
+                final EvolutionResult<ProgramGene<Double>, Double> generation = island.getLastGeneration();
+                if (generation != null && (bestGeneration == null || generation.getBestFitness() > bestGeneration.getBestFitness())) {
+                    bestGeneration = generation;
+                }
+            }
+            if (bestGeneration != null) {
+                this.keepBest(bestGeneration);
+                this.showGeneration(bestGeneration);
+                lastGeneration = bestGeneration.getGeneration();
+            }
+            Island.migrate(islands, GeneticAlgorithmConfig.MIGRANTS);
+        } while (termination.proceed(lastGeneration, this.getBestFitness(), this.evaluations.get()));
+    }
+    
+    private void keepBest(final EvolutionResult<ProgramGene<Double>, Double> generation) {
+        final Phenotype<ProgramGene<Double>, Double> candidate = generation.getBestPhenotype();
+        if (this.bestPhenotype == null || candidate.getFitness() > this.bestPhenotype.getFitness()) {
+            this.bestPhenotype = candidate;
+        }
+    }
+    
+    public void showGeneration(final EvolutionResult<ProgramGene<Double>, Double> generation) {
+        final TreeNode<Op<Double>> bestCandidate = TreeNode.ofTree(generation.getBestPhenotype().getGenotype().getGene());
+        final String candidateAsInfix = new Parser().getAsInfix(bestCandidate);
+        System.out.println("Generation: " + generation.getGeneration() + "; Best fitness: " + generation.getBestFitness() + "; Best genotype: " + candidateAsInfix);
     }
     
     public SimilarExpressionCalculator getSimilarExpressionCalculator() {
-        return GeneticAlgorithm.SIMILAR_EXPRESSION_CALCULATOR;
+        return this.similarExpressionCalculator;
+    }
+    
+    public TerminationPolicy.Reason getTerminationReason() {
+        final TerminationPolicy.Run termination = this.termination;
+        return (termination == null) ? null : termination.getReason();
+    }
+    
+    public long getFitnessCacheHits() {
+        final FitnessCache<ProgramGene<Double>> fitnessCache = this.fitnessCache;
+        return (fitnessCache == null) ? 0L : fitnessCache.getHits();
+    }
+    
+    public long getFitnessCacheMisses() {
+        final FitnessCache<ProgramGene<Double>> fitnessCache = this.fitnessCache;
+        return (fitnessCache == null) ? 0L : fitnessCache.getMisses();
+    }
+    
+    public String getBestExpression() {
+        final Phenotype<ProgramGene<Double>, Double> best = this.bestPhenotype;
+        if (best == null) {
+            return "";
+        }
+        return new Parser().getAsInfix(TreeNode.ofTree(best.getGenotype().getGene()));
+    }
+    
+    public Double getBestFitness() {
+        final Phenotype<ProgramGene<Double>, Double> best = this.bestPhenotype;
+        return (best == null) ? 0.0 : best.getFitness();
     }
     
     static {
-        CODEC = Codec.of((Factory)Genotype.of((Chromosome)GeneticAlgorithmConfig.CHROMOSOME, new Chromosome[0]), (Function)Genotype::getGene);
+        CODEC = Codec.of(Genotype.of(GeneticAlgorithmConfig.CHROMOSOME), Genotype::getGene);
+    }
+    
+    private static class EvaluationPool
+    {
+        private static final ForkJoinPool INSTANCE;
+        
+        static {
+            INSTANCE = new ForkJoinPool(GeneticAlgorithmConfig.EVALUATION_PARALLELISM);
+        }
     }
 }
@@ -0,0 +1,64 @@
+package ia.module.genetic.algorithm;
+
+import io.jenetics.engine.*;
+import io.jenetics.*;
+import io.jenetics.util.*;
+import java.util.*;
+
+public class Island<G extends Gene<?, G>, C extends Comparable<? super C>>
+{
+    private final Engine<G, C> engine;
+    private final Comparator<Phenotype<G, C>> bestFirst;
+    private EvolutionStart<G, C> start;
+    private EvolutionResult<G, C> lastGeneration;
+    
+    public Island(final Engine<G, C> engine, final ISeq<Phenotype<G, C>> seeds) {
+        this.engine = engine;
+        this.bestFirst = Comparator.comparing(Phenotype::getFitness, engine.getOptimize().<C>descending());
+        this.start = EvolutionStart.of(filled(engine, seeds), 1L);
+        this.lastGeneration = null;
+    }
+    
+    private static <G extends Gene<?, G>, C extends Comparable<? super C>> ISeq<Phenotype<G, C>> filled(final Engine<G, C> engine, final ISeq<Phenotype<G, C>> seeds) {
+        final List<Phenotype<G, C>> population = new ArrayList<Phenotype<G, C>>(seeds.asList());
+        while (population.size() < engine.getPopulationSize()) {
+            population.add(Phenotype.of(engine.getGenotypeFactory().newInstance(), 1L, engine.getFitnessFunction(), engine.getFitnessScaler()));
+        }
+        return ISeq.of(population);
+    }
+    
+    public static <G extends Gene<?, G>, C extends Comparable<? super C>> void migrate(final List<Island<G, C>> islands, final int migrants) {
+        final List<ISeq<Phenotype<G, C>>> emigrants = new ArrayList<ISeq<Phenotype<G, C>>>();
+        for (final Island<G, C> island : islands) {
+            emigrants.add(island.getBest(migrants));
+        }
+        for (int i = 0; i < islands.size(); ++i) {
+            islands.get((i + 1) % islands.size()).welcome(emigrants.get(i));
+        }
+    }
+    
+    public void evolve(final int generations, final EvolutionDeadline deadline) {
+        for (int i = 0; i < generations && !deadline.isExpired(); ++i) {
+            this.lastGeneration = this.engine.evolve(this.start);
+            this.start = this.lastGeneration.next();
+        }
+    }
+    
+    public EvolutionResult<G, C> getLastGeneration() {
+        return this.lastGeneration;
+    }
+    
+    public ISeq<Phenotype<G, C>> getPopulation() {
+        return this.start.getPopulation();
+    }
+    
+    public ISeq<Phenotype<G, C>> getBest(final int count) {
+        return this.start.getPopulation().stream().sorted(this.bestFirst).limit(count).collect(ISeq.toISeq());
+    }
+    
+    public void welcome(final ISeq<Phenotype<G, C>> immigrants) {
+        final ISeq<Phenotype<G, C>> population = this.start.getPopulation();
+        final ISeq<Phenotype<G, C>> survivors = population.stream().sorted(this.bestFirst).limit(Math.max(0, population.size() - immigrants.size())).collect(ISeq.toISeq());
+        this.start = EvolutionStart.of(survivors.append(immigrants), this.start.getGeneration());
+    }
+}
@@ -0,0 +1,123 @@
+package ia.module.genetic.algorithm;
+
+import ia.module.config.*;
+
+public class TerminationPolicy
+{
+    private final double expectedFitness;
+    private final int minGenerations;
+    private final int steadyGenerations;
+    private final long maxEvaluations;
+    
+    public TerminationPolicy(final double expectedFitness, final int minGenerations, final int steadyGenerations, final long maxEvaluations) {
+        this.expectedFitness = expectedFitness;
+        this.minGenerations = Math.max(0, minGenerations);
+        this.steadyGenerations = Math.max(1, steadyGenerations);
+        this.maxEvaluations = Math.max(1L, maxEvaluations);
+    }
+    
+    public static TerminationPolicy defaults() {
+        return new TerminationPolicy(GeneticAlgorithmConfig.EXPECTED_FITNESS, GeneticAlgorithmConfig.MIN_ITERATIONS, GeneticAlgorithmConfig.STEADY_FITNESS_GENERATIONS, GeneticAlgorithmConfig.MAX_EVALUATIONS);
+    }
+    
+    public TerminationPolicy withExpectedFitness(final double expectedFitness) {
+        return new TerminationPolicy(expectedFitness, this.minGenerations, this.steadyGenerations, this.maxEvaluations);
+    }
+    
+    public TerminationPolicy withMinGenerations(final int minGenerations) {
+        return new TerminationPolicy(this.expectedFitness, minGenerations, this.steadyGenerations, this.maxEvaluations);
+    }
+    
+    public TerminationPolicy withSteadyGenerations(final int steadyGenerations) {
+        return new TerminationPolicy(this.expectedFitness, this.minGenerations, steadyGenerations, this.maxEvaluations);
+    }
+    
+    public TerminationPolicy withMaxEvaluations(final long maxEvaluations) {
+        return new TerminationPolicy(this.expectedFitness, this.minGenerations, this.steadyGenerations, maxEvaluations);
+    }
+    
+    public double getExpectedFitness() {
+        return this.expectedFitness;
+    }
+    
+    public int getMinGenerations() {
+        return this.minGenerations;
+    }
+    
+    public int getSteadyGenerations() {
+        return this.steadyGenerations;
+    }
+    
+    public long getMaxEvaluations() {
+        return this.maxEvaluations;
+    }
+    
+    public Run start(final EvolutionDeadline deadline) {
+        return new Run(this, deadline);
+    }
+    
+    @Override
+    public String toString() {
+        return "fitness >= " + this.expectedFitness + " after " + this.minGenerations + " generations, " + this.steadyGenerations + " steady generations, " + ((this.maxEvaluations == Long.MAX_VALUE) ? "unlimited" : String.valueOf(this.maxEvaluations)) + " evaluations";
+    }
+    
+    public enum Reason
+    {
+        DEADLINE, 
+        EXPECTED_FITNESS, 
+        EVALUATION_BUDGET, 
+        STEADY_FITNESS;
+    }
+    
+    public static class Run
+    {
+        private final TerminationPolicy policy;
+        private final EvolutionDeadline deadline;
+        private double bestFitness;
+        private long improvedAt;
+        private long generation;
+        private long evaluations;
+        private volatile Reason reason;
+        
+        private Run(final TerminationPolicy policy, final EvolutionDeadline deadline) {
+            this.policy = policy;
+            this.deadline = deadline;
+            this.bestFitness = Double.NEGATIVE_INFINITY;
+            this.improvedAt = 0L;
+            this.generation = 0L;
+            this.evaluations = 0L;
+            this.reason = null;
+        }
+        
+        public boolean proceed(final long generation, final double bestFitness, final long evaluations) {
+            if (bestFitness > this.bestFitness) {
+                this.bestFitness = bestFitness;
+                this.improvedAt = generation;
+            }
+            this.generation = generation;
+            this.evaluations = evaluations;
+            if (this.deadline.isExpired()) {
+                this.reason = Reason.DEADLINE;
+            }
+            else if (generation >= this.policy.minGenerations && bestFitness >= this.policy.expectedFitness) {
+                this.reason = Reason.EXPECTED_FITNESS;
+            }
+            else if (evaluations >= this.policy.maxEvaluations) {
+                this.reason = Reason.EVALUATION_BUDGET;
+            }
+            else if (generation - this.improvedAt >= this.policy.steadyGenerations) {
+                this.reason = Reason.STEADY_FITNESS;
+            }
+            return this.reason == null;
+        }
+        
+        public Reason getReason() {
+            return this.reason;
+        }
+        
+        @Override
+        public String toString() {
+            return "stopped after " + this.generation + " generations and " + this.evaluations + " evaluations by " + this.reason + " (" + this.policy + ")";
+        }
+    }
+}
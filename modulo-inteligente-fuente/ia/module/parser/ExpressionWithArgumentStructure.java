@@ -12,6 +12,12 @@ public class ExpressionWithArgumentStructure
         this.countOfOccurrences = 1;
     }
     
+    public ExpressionWithArgumentStructure(final Integer dadToken, final Integer childToken, final Integer countOfOccurrences) {
+        this.dadToken = dadToken;
+        this.childToken = childToken;
+        this.countOfOccurrences = countOfOccurrences;
+    }
+    
     public Integer getDadToken() {
         return this.dadToken;
     }
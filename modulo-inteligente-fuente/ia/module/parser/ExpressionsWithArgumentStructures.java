@@ -1,52 +1,90 @@
 package ia.module.parser;
 
-import java.util.*;
-import java.util.stream.*;
-
 public class ExpressionsWithArgumentStructures
 {
-    private List<ExpressionWithArgumentStructure> expressionsWithArgument;
+    private static final int TOKENS = 22;
+    private static final int EQUIVALENT_TOKENS;
+    private final int[] countOfOccurrences;
+    private final int[] structures;
+    private int countOfStructures;
+    private int firstEquivalentStructure;
     
     public ExpressionsWithArgumentStructures() {
-        this.expressionsWithArgument = new ArrayList<ExpressionWithArgumentStructure>();
+        this.countOfOccurrences = new int[ExpressionsWithArgumentStructures.TOKENS * ExpressionsWithArgumentStructures.TOKENS];
+        this.structures = new int[ExpressionsWithArgumentStructures.TOKENS * ExpressionsWithArgumentStructures.TOKENS];
+        this.countOfStructures = 0;
+        this.firstEquivalentStructure = -1;
     }
     
     public ExpressionsWithArgumentStructures addExpressionWithArguments(final Integer dadToken, final Integer childToken) {
-        final List<ExpressionWithArgumentStructure> expressions = this.expressionsWithArgument.stream().filter(expressionWithArgumentStructure -> dadToken.equals(expressionWithArgumentStructure.getDadToken()) && childToken.equals(expressionWithArgumentStructure.getChildToken())).collect((Collector<? super Object, ?, List<ExpressionWithArgumentStructure>>)Collectors.toList());
-        if (expressions.isEmpty()) {
-            this.expressionsWithArgument.add(new ExpressionWithArgumentStructure(dadToken, childToken));
-        }
-        else {
-            expressions.get(0).incrementCountOfOccurrences();
+        final int structure = dadToken * ExpressionsWithArgumentStructures.TOKENS + childToken;
+        if (this.countOfOccurrences[structure]++ == 0) {
+            this.structures[this.countOfStructures++] = structure;
+            if (this.firstEquivalentStructure < 0 && isEquivalent(structure)) {
+                this.firstEquivalentStructure = structure;
+            }
         }
         return this;
     }
     
     public Long getCountOfStructuresNotIncludedInto(final ExpressionsWithArgumentStructures structures) {
-        return (long)this.expressionsWithArgument.stream().filter(structure -> !structures.has(structure)).map(structure -> structure.getDiffOfOccurrences(structures)).reduce(0, (total, diff) -> total + diff);
+        long count = 0L;
+        for (int i = 0; i < this.countOfStructures; ++i) {
+            final int structure = this.structures[i];
+            if (structures.find(structure) < 0) {
+                count += this.countOfOccurrences[structure];
+            }
+        }
+        return count;
     }
     
     public Long getCountOfStructuresWithCountOfOccurrencesOutOfBoundOf(final ExpressionsWithArgumentStructures structures) {
-        return (long)this.expressionsWithArgument.stream().filter(structure -> structure.hasOccurrencesOutOfBoundsOf(structures)).map(structure -> structure.getDiffOfOccurrences(structures)).reduce(0, (total, diff) -> total + diff);
+        long count = 0L;
+        for (int i = 0; i < this.countOfStructures; ++i) {
+            final int structure = this.structures[i];
+            final int found = structures.find(structure);
+            if (found < 0) {
+                count += this.countOfOccurrences[structure];
+            }
+            else if (this.countOfOccurrences[structure] > structures.countOfOccurrences[found]) {
+                count += this.countOfOccurrences[structure] - structures.countOfOccurrences[found];
+            }
+        }
+        return count;
     }
     
     public Boolean has(final ExpressionWithArgumentStructure expressionWithArgumentStructure) {
-        return this.expressionsWithArgument.stream().anyMatch(structure -> (structure.getDadToken().equals(expressionWithArgumentStructure.getDadToken()) && structure.getChildToken().equals(expressionWithArgumentStructure.getChildToken())) || this.haveEquivalentTokens(structure, expressionWithArgumentStructure));
+        return this.find(structureOf(expressionWithArgumentStructure)) >= 0;
     }
     
     public ExpressionWithArgumentStructure find(final ExpressionWithArgumentStructure expressionWithArgumentStructure) {
-        final List<ExpressionWithArgumentStructure> structures = this.expressionsWithArgument.stream().filter(structure -> (structure.getDadToken().equals(expressionWithArgumentStructure.getDadToken()) && structure.getChildToken().equals(expressionWithArgumentStructure.getChildToken())) || this.haveEquivalentTokens(structure, expressionWithArgumentStructure)).collect((Collector<? super Object, ?, List<ExpressionWithArgumentStructure>>)Collectors.toList());
-        if (structures.isEmpty()) {
+        final int structure = this.find(structureOf(expressionWithArgumentStructure));
+        if (structure < 0) {
             return null;
         }
-        return structures.get(0);
+        return new ExpressionWithArgumentStructure(structure / ExpressionsWithArgumentStructures.TOKENS, structure % ExpressionsWithArgumentStructures.TOKENS, this.countOfOccurrences[structure]);
+    }
+    
+    private int find(final int structure) {
+        if (isEquivalent(structure)) {
+            return this.firstEquivalentStructure;
+        }
+        return (this.countOfOccurrences[structure] > 0) ? structure : -1;
     }
     
-    private Boolean haveEquivalentTokens(final ExpressionWithArgumentStructure structure1, final ExpressionWithArgumentStructure structure2) {
-        return this.hasEquivalentToken(structure1) && this.hasEquivalentToken(structure2);
+    private static int structureOf(final ExpressionWithArgumentStructure expressionWithArgumentStructure) {
+        return expressionWithArgumentStructure.getDadToken() * ExpressionsWithArgumentStructures.TOKENS + expressionWithArgumentStructure.getChildToken();
     }
     
-    private Boolean hasEquivalentToken(final ExpressionWithArgumentStructure structure) {
-        return Operator.equivalentTokens().contains(structure.getDadToken()) && Operator.equivalentTokens().contains(structure.getChildToken());
+    private static boolean isEquivalent(final int structure) {
+        return (ExpressionsWithArgumentStructures.EQUIVALENT_TOKENS & 1 << structure / ExpressionsWithArgumentStructures.TOKENS) != 0 && (ExpressionsWithArgumentStructures.EQUIVALENT_TOKENS & 1 << structure % ExpressionsWithArgumentStructures.TOKENS) != 0;
+    }
+    
+    static {
+        int equivalentTokens = 0;
+        for (final Integer token : Operator.equivalentTokens()) {
+            equivalentTokens |= 1 << token;
+        }
+        EQUIVALENT_TOKENS = equivalentTokens;
     }
 }
@@ -27,15 +27,18 @@ public class Operator
     public static final int LOGARITHM = 19;
     public static final int DERIVATIVE = 20;
     public static final int INTEGRAL = 21;
-    public static List<Long> FIBONACCI;
-    private Integer operator;
-    private Integer degree;
+    private static final long[] FIBONACCI;
+    private static final int LOWEST_CACHED_DEGREE = -128;
+    private static final int HIGHEST_CACHED_DEGREE = 127;
+    private static final Operator[][] TOKENS;
+    private final int operator;
+    private final int degree;
     
-    public Integer getOperator() {
+    public int getOperator() {
         return this.operator;
     }
     
-    public Integer getDegree() {
+    public int getDegree() {
         return this.degree;
     }
     
@@ -46,12 +49,15 @@ public class Operator
         return tokens;
     }
     
-    public Operator(final Integer operator, final Integer degree) {
+    private Operator(final int operator, final int degree) {
         this.operator = operator;
         this.degree = degree;
     }
     
-    public static Operator newToken(final Integer operator, final Integer degree) {
+    public static Operator newToken(final int operator, final int degree) {
+        if (operator >= 0 && operator < Operator.TOKENS.length && degree >= Operator.LOWEST_CACHED_DEGREE && degree <= Operator.HIGHEST_CACHED_DEGREE) {
+            return Operator.TOKENS[operator][degree - Operator.LOWEST_CACHED_DEGREE];
+        }
         return new Operator(operator, degree);
     }
     
@@ -60,12 +66,29 @@ public class Operator
         return "(" + this.tokenName() + ", " + this.degree + ")";
     }
     
-    public boolean equals(final Operator operator1) {
-        return this.operator.equals(operator1.getOperator());
+    public boolean sameKindAs(final Operator operator1) {
+        return this.operator == operator1.getOperator();
     }
     
     public boolean totallyEquals(final Operator operator1) {
-        return this.equals(operator1) && this.degree.equals(operator1.getDegree());
+        return this.equals(operator1);
+    }
+    
+    @Override
+    public boolean equals(final Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof Operator)) {
+            return false;
+        }
+        final Operator operator1 = (Operator)object;
+        return this.operator == operator1.getOperator() && this.degree == operator1.getDegree();
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * this.operator + this.degree;
     }
     
     public String tokenName() {
@@ -140,33 +163,30 @@ public class Operator
     }
     
     public Long getFibonacciWeight() {
-        final Integer token = this.getOperator();
-        if (Operator.FIBONACCI == null) {
-            (Operator.FIBONACCI = new ArrayList<Long>()).add(1L);
-            Operator.FIBONACCI.add(1L);
-            Operator.FIBONACCI = this.recursiveFibonacci(Operator.FIBONACCI);
-        }
-        final Integer additional = (this.operator == 12) ? this.degree : 0;
-        return Operator.FIBONACCI.get((token > 10) ? (token - 1) : ((int)token)) + additional;
+        final long additional = (this.operator == 12) ? this.degree : 0L;
+        return Operator.FIBONACCI[inputIndexOf(this.operator)] + additional;
     }
     
-    private List<Long> recursiveFibonacci(final List<Long> fibonacci) {
-        if (fibonacci.size() >= NeuralNetworkConfig.INPUTS) {
-            return fibonacci;
+    public static Long getFibonacciWeight(final Integer index) {
+        return Operator.FIBONACCI[inputIndexOf(index)];
+    }
+    
+    public static long getFibonacciWeightOf(final int tokens) {
+        long weight = 0L;
+        for (int remaining = tokens; remaining != 0; remaining &= remaining - 1) {
+            weight += Operator.FIBONACCI[inputIndexOf(Integer.numberOfTrailingZeros(remaining))];
         }
-        fibonacci.add(fibonacci.get(fibonacci.size() - 1) + fibonacci.get(fibonacci.size() - 2));
-        return this.recursiveFibonacci(fibonacci);
+        return weight;
     }
     
-    public static Long getFibonacciWeight(final Integer index) {
-        final Operator operator = new Operator(index, 0);
-        return operator.getFibonacciWeight();
+    public static int inputIndexOf(final int token) {
+        return (token > 10) ? (token - 1) : token;
     }
     
     public static Long getFibonacciWeightsSum() {
         Long sum = 0L;
         for (int i = 0; i < 21; ++i) {
-            sum += getFibonacciWeight(i);
+            sum += Operator.FIBONACCI[inputIndexOf(i)];
         }
         return sum;
     }
@@ -174,8 +194,23 @@ public class Operator
     public static double[] getFibonacci(final Integer size) {
         final double[] fibonacci = new double[(int)size];
         for (int i = 0; i < size; ++i) {
-            fibonacci[i] = getFibonacciWeight(i);
+            fibonacci[i] = Operator.FIBONACCI[inputIndexOf(i)];
         }
         return fibonacci;
     }
+    
+    static {
+        FIBONACCI = new long[NeuralNetworkConfig.INPUTS];
+        Operator.FIBONACCI[0] = 1L;
+        Operator.FIBONACCI[1] = 1L;
+        for (int i = 2; i < Operator.FIBONACCI.length; ++i) {
+            Operator.FIBONACCI[i] = Operator.FIBONACCI[i - 1] + Operator.FIBONACCI[i - 2];
+        }
+        TOKENS = new Operator[Operator.INTEGRAL + 1][Operator.HIGHEST_CACHED_DEGREE - Operator.LOWEST_CACHED_DEGREE + 1];
+        for (int token = 0; token < Operator.TOKENS.length; ++token) {
+            for (int degree = Operator.LOWEST_CACHED_DEGREE; degree <= Operator.HIGHEST_CACHED_DEGREE; ++degree) {
+                Operator.TOKENS[token][degree - Operator.LOWEST_CACHED_DEGREE] = new Operator(token, degree);
+            }
+        }
+    }
 }
@@ -9,11 +9,15 @@ import ia.module.parser.tree.*;
 
 public class Parser
 {
-    LinkedList<Token> tokens;
-    Token lookahead;
+    private static final String E_VALUE = "2.718281828459045235360";
+    private static final String PI_VALUE = "3.14159265358979323846";
+    private static final String[] IMPLICITLY_MULTIPLIED;
+    private TokenBuffer tokens;
+    private int cursor;
+    private int lookahead;
     
     public ExpressionNode parse(final TreeNode<Op<Double>> expression) throws ParserException, ParseException {
-        return this.parse(this.getAsInfix(expression));
+        return new ProgramTreeConverter().convert(expression);
     }
     
     public String getAsInfix(final TreeNode<Op<Double>> expression) {
@@ -77,7 +81,13 @@ public class Parser
         String sum = "";
         final Integer childCount = expression.childCount();
         for (int i = 0; i < childCount; ++i) {
-            sum = sum + this.getAsInfix((TreeNode<Op<Double>>)expression.getChild(i)) + operator;
+            final TreeNode<Op<Double>> child = (TreeNode<Op<Double>>)expression.getChild(i);
+            if (i > 0 && operator.equals("-") && ProgramTreeConverter.isSum(child)) {
+                sum = sum + "(" + this.getAsInfix(child) + ")" + operator;
+            }
+            else {
+                sum = sum + this.getAsInfix(child) + operator;
+            }
         }
         return sum.substring(0, sum.length() - 1);
     }
@@ -110,47 +120,99 @@ public class Parser
     }
     
     public ExpressionNode parse(final String expression) throws ParserException, ParseException {
-        final Tokenizer tokenizer = Tokenizer.getExpressionTokenizer();
-        tokenizer.tokenize(this.cleanFormatOf(expression));
-        final LinkedList<Token> tokens = tokenizer.getTokens();
-        return this.parse(tokens);
+        return this.parse(Tokenizer.getExpressionTokenizer().tokenize(this.cleanFormatOf(expression)));
     }
     
     public String cleanFormatOf(final String expression) {
-        String expressionCleaned = this.replaceComplexOperatorsNames(expression);
-        expressionCleaned = this.addMultiplicationSymbols(expressionCleaned);
-        return expressionCleaned.replaceAll("e", "2.718281828459045235360").replaceAll("pi", "3.14159265358979323846").replaceAll("\\)x", ")*x").replaceAll("\\)\\(", ")*(").replaceAll("x\\(", "x*(").replaceAll("dx\\*\\(", "dx(");
+        final String source = this.replaceComplexOperatorsNames(expression);
+        final int length = source.length();
+        final StringBuilder cleaned = new StringBuilder(length + 16);
+        int i = 0;
+        while (i < length) {
+            final char current = source.charAt(i);
+            if (current == 'e') {
+                cleaned.append(Parser.E_VALUE);
+                ++i;
+            }
+            else if (current == 'p' && source.startsWith("i", i + 1)) {
+                cleaned.append(Parser.PI_VALUE);
+                i += 2;
+            }
+            else if (current == 'd' && source.startsWith("x*(", i + 1)) {
+                cleaned.append("dx(");
+                i += 4;
+            }
+            else {
+                cleaned.append(current);
+                if (current >= '0' && current <= '9' && this.startsWithMultipliable(source, i + 1)) {
+                    cleaned.append('*');
+                }
+                else if (current == ')' && (source.startsWith("x", i + 1) || source.startsWith("(", i + 1))) {
+                    cleaned.append('*');
+                }
+                else if (current == 'x' && source.startsWith("(", i + 1) && (i == 0 || source.charAt(i - 1) != 'd')) {
+                    cleaned.append('*');
+                }
+                ++i;
+            }
+        }
+        return cleaned.toString();
+    }
+    
+    private boolean startsWithMultipliable(final String expression, final int from) {
+        for (final String prefix : Parser.IMPLICITLY_MULTIPLIED) {
+            if (expression.startsWith(prefix, from)) {
+                return true;
+            }
+        }
+        return false;
     }
     
     private String replaceComplexOperatorsNames(final String expression) {
-        return expression.replaceAll("derivative", "dx").replaceAll("integral", "int");
+        return this.replaceLiteral(this.replaceLiteral(expression, "derivative", "dx"), "integral", "int");
     }
     
-    private String addMultiplicationSymbols(String expression) {
-        for (int i = 0; i <= 9; ++i) {
-            expression = expression.replaceAll(i + "\\(", i + "*(").replaceAll(i + "sqrt", i + "*sqrt").replaceAll(i + "sin", i + "*sin").replaceAll(i + "cos", i + "*cos").replaceAll(i + "tan", i + "*tan").replaceAll(i + "ln", i + "*ln").replaceAll(i + "log", i + "*log").replaceAll(i + "log2b", i + "*log2b").replaceAll(i + "dx", i + "*dx").replaceAll(i + "int", i + "*int").replaceAll(i + "x", i + "*x");
+    private String replaceLiteral(final String expression, final String target, final String replacement) {
+        int match = expression.indexOf(target);
+        if (match < 0) {
+            return expression;
         }
-        return expression;
+        final StringBuilder replaced = new StringBuilder(expression.length());
+        int from = 0;
+        while (match >= 0) {
+            replaced.append(expression, from, match).append(replacement);
+            from = match + target.length();
+            match = expression.indexOf(target, from);
+        }
+        return replaced.append(expression, from, expression.length()).toString();
     }
     
     public ExpressionNode parse(final LinkedList<Token> tokens) throws ParseException, ParserException {
-        this.tokens = (LinkedList<Token>)tokens.clone();
-        this.lookahead = this.tokens.getFirst();
+        return this.parse(TokenBuffer.of(tokens));
+    }
+    
+    public ExpressionNode parse(final TokenBuffer tokens) throws ParseException {
+        this.tokens = tokens;
+        this.cursor = 0;
+        this.lookahead = ((tokens.size() > 0) ? tokens.kind(0) : 0);
         final ExpressionNode expr = this.expression();
-        if (this.lookahead.token != 0) {
-            throw new ParseException("Unexpected symbol " + this.lookahead + " found", 0);
+        if (this.lookahead != 0) {
+            throw new ParseException("Unexpected symbol " + this.lookaheadSequence() + " found", 0);
         }
         return expr;
     }
     
     private void nextToken() {
-        this.tokens.pop();
-        if (this.tokens.isEmpty()) {
-            this.lookahead = new Token(0, "", -1);
-        }
-        else {
-            this.lookahead = this.tokens.getFirst();
-        }
+        ++this.cursor;
+        this.lookahead = ((this.cursor < this.tokens.size()) ? this.tokens.kind(this.cursor) : 0);
+    }
+    
+    private String lookaheadSequence() {
+        return (this.cursor < this.tokens.size()) ? this.tokens.sequence(this.cursor) : "";
+    }
+    
+    private boolean lookaheadIs(final String sequence) {
+        return this.cursor < this.tokens.size() && this.tokens.sequenceEquals(this.cursor, sequence);
     }
     
     private ExpressionNode expression() throws ParseException {
@@ -159,7 +221,7 @@ public class Parser
     }
     
     private ExpressionNode sumOp(final ExpressionNode expr) throws ParseException {
-        if (this.lookahead.token == 1) {
+        if (this.lookahead == 1) {
             AdditionExpressionNode sum;
             if (expr.getType() == 3) {
                 sum = (AdditionExpressionNode)expr;
@@ -167,7 +229,7 @@ public class Parser
             else {
                 sum = new AdditionExpressionNode(expr, true);
             }
-            final boolean positive = this.lookahead.sequence.equals("+");
+            final boolean positive = this.lookaheadIs("+");
             this.nextToken();
             final ExpressionNode t = this.term();
             sum.add(t, positive);
@@ -177,10 +239,10 @@ public class Parser
     }
     
     private ExpressionNode signedTerm() throws ParseException {
-        if (this.lookahead.token != 1) {
+        if (this.lookahead != 1) {
             return this.term();
         }
-        final boolean positive = this.lookahead.sequence.equals("+");
+        final boolean positive = this.lookaheadIs("+");
         this.nextToken();
         final ExpressionNode t = this.term();
         if (positive) {
@@ -195,7 +257,7 @@ public class Parser
     }
     
     private ExpressionNode termOp(final ExpressionNode expression) throws ParseException {
-        if (this.lookahead.token == 2) {
+        if (this.lookahead == 2) {
             MultiplicationExpressionNode prod;
             if (expression.getType() == 4) {
                 prod = (MultiplicationExpressionNode)expression;
@@ -203,7 +265,7 @@ public class Parser
             else {
                 prod = new MultiplicationExpressionNode(expression, true);
             }
-            final boolean positive = this.lookahead.sequence.equals("*");
+            final boolean positive = this.lookaheadIs("*");
             this.nextToken();
             final ExpressionNode f = this.signedFactor();
             prod.add(f, positive);
@@ -213,10 +275,10 @@ public class Parser
     }
     
     private ExpressionNode signedFactor() throws ParseException {
-        if (this.lookahead.token != 1) {
+        if (this.lookahead != 1) {
             return this.factor();
         }
-        final boolean positive = this.lookahead.sequence.equals("+");
+        final boolean positive = this.lookaheadIs("+");
         this.nextToken();
         final ExpressionNode t = this.factor();
         if (positive) {
@@ -231,7 +293,7 @@ public class Parser
     }
     
     private ExpressionNode factorOp(final ExpressionNode expression) throws ParseException {
-        if (this.lookahead.token == 3) {
+        if (this.lookahead == 3) {
             this.nextToken();
             final ExpressionNode exponent = this.signedFactor();
             return new ExponentiationExpressionNode(expression, exponent);
@@ -240,38 +302,42 @@ public class Parser
     }
     
     private ExpressionNode argument() throws ParseException {
-        if (this.lookahead.token == 4) {
-            final int function = FunctionExpressionNode.stringToFunction(this.lookahead.sequence);
+        if (this.lookahead == 4) {
+            final int function = FunctionExpressionNode.stringToFunction(this.lookaheadSequence());
             this.nextToken();
             final ExpressionNode expr = this.argument();
             return new FunctionExpressionNode(function, expr);
         }
-        if (this.lookahead.token != 5) {
+        if (this.lookahead != 5) {
             return this.value();
         }
         this.nextToken();
         final ExpressionNode expr2 = this.expression();
-        if (this.lookahead.token != 6) {
-            throw new ParseException("Closing brackets expected: " + this.lookahead, 0);
+        if (this.lookahead != 6) {
+            throw new ParseException("Closing brackets expected: " + this.lookaheadSequence(), 0);
         }
         this.nextToken();
         return expr2;
     }
     
     private ExpressionNode value() throws ParseException {
-        if (this.lookahead.token == 7) {
-            final ExpressionNode expr = new ConstantExpressionNode(this.lookahead.sequence);
+        if (this.lookahead == 7) {
+            final ExpressionNode expr = new ConstantExpressionNode(this.lookaheadSequence());
             this.nextToken();
             return expr;
         }
-        if (this.lookahead.token == 8) {
-            final ExpressionNode expr = new VariableExpressionNode(this.lookahead.sequence);
+        if (this.lookahead == 8) {
+            final ExpressionNode expr = new VariableExpressionNode(this.lookaheadSequence());
             this.nextToken();
             return expr;
         }
-        if (this.lookahead.token == 0) {
+        if (this.lookahead == 0) {
             throw new ParseException("Unexpected end of input", 0);
         }
-        throw new ParseException("Unexpected symbol " + this.lookahead + " found", 0);
+        throw new ParseException("Unexpected symbol " + this.lookaheadSequence() + " found", 0);
+    }
+    
+    static {
+        IMPLICITLY_MULTIPLIED = new String[] { "(", "sqrt", "sin", "cos", "tan", "ln", "log", "dx", "int", "x" };
     }
 }
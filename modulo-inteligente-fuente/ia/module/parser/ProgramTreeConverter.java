@@ -0,0 +1,125 @@
+package ia.module.parser;
+
+import io.jenetics.ext.util.*;
+import io.jenetics.prog.op.*;
+import sun.tools.jstat.*;
+import java.text.*;
+import ia.module.parser.tree.*;
+
+public class ProgramTreeConverter
+{
+    public ExpressionNode convert(final Tree<? extends Op<Double>, ?> program) throws ParserException, ParseException {
+        if (program.isLeaf()) {
+            return this.leaf(program);
+        }
+        switch (program.getValue().name()) {
+            case "ADD":
+            case "SUB": {
+                final AdditionExpressionNode sum = new AdditionExpressionNode();
+                this.addTerms(sum, program, true);
+                return sum;
+            }
+            case "MUL": {
+                return this.product(program, true);
+            }
+            case "DIV": {
+                return this.product(program, false);
+            }
+            case "POW": {
+                return this.power(program, 0);
+            }
+            case "SQRT": {
+                return this.function(program, FunctionExpressionNode.SQRT);
+            }
+            case "LN": {
+                return this.function(program, FunctionExpressionNode.LN);
+            }
+            case "LOG": {
+                return this.function(program, FunctionExpressionNode.LOG);
+            }
+            case "LOG2B": {
+                return this.function(program, FunctionExpressionNode.LOG2);
+            }
+            case "SIN": {
+                return this.function(program, FunctionExpressionNode.SIN);
+            }
+            case "COS": {
+                return this.function(program, FunctionExpressionNode.COS);
+            }
+            case "TAN": {
+                return this.function(program, FunctionExpressionNode.TAN);
+            }
+            case "INTEGRAL": {
+                return this.function(program, FunctionExpressionNode.INTEGRAL);
+            }
+            case "DERIVATIVE": {
+                return this.function(program, FunctionExpressionNode.DERIVATIVE);
+            }
+            default: {
+                return this.parsedFromInfix(program);
+            }
+        }
+    }
+    
+    private ExpressionNode leaf(final Tree<? extends Op<Double>, ?> program) throws ParserException, ParseException {
+        try {
+            return new ConstantExpressionNode(Double.valueOf(program.getValue().toString()));
+        }
+        catch (NumberFormatException e) {
+            if (program.getValue() instanceof Var) {
+                return new VariableExpressionNode(program.getValue().name());
+            }
+            return this.parsedFromInfix(program);
+        }
+    }
+    
+    private void addTerms(final AdditionExpressionNode sum, final Tree<? extends Op<Double>, ?> program, final boolean positive) throws ParserException, ParseException {
+        if (!isSum(program)) {
+            sum.add(this.convert(program), positive);
+            return;
+        }
+        final boolean subtraction = program.getValue().name().equals("SUB");
+        this.addTerms(sum, program.getChild(0), positive);
+        for (int i = 1; i < program.childCount(); ++i) {
+            if (subtraction && isSum(program.getChild(i))) {
+                sum.add(this.convert(program.getChild(i)), !positive);
+            }
+            else {
+                this.addTerms(sum, program.getChild(i), subtraction != positive);
+            }
+        }
+    }
+    
+    static boolean isSum(final Tree<? extends Op<Double>, ?> program) {
+        return !program.isLeaf() && (program.getValue().name().equals("ADD") || program.getValue().name().equals("SUB"));
+    }
+    
+    private ExpressionNode product(final Tree<? extends Op<Double>, ?> program, final boolean multiplication) throws ParserException, ParseException {
+        final ExpressionNode first = this.convert(program.getChild(0));
+        final MultiplicationExpressionNode product = (first.getType() == 4) ? ((MultiplicationExpressionNode)first) : new MultiplicationExpressionNode(first, true);
+        for (int i = 1; i < program.childCount(); ++i) {
+            product.add(this.convert(program.getChild(i)), multiplication);
+        }
+        return product;
+    }
+    
+    private ExpressionNode power(final Tree<? extends Op<Double>, ?> program, final int child) throws ParserException, ParseException {
+        final ExpressionNode base = this.convert(program.getChild(child));
+        if (child == program.childCount() - 1) {
+            return base;
+        }
+        return new ExponentiationExpressionNode(base, this.power(program, child + 1));
+    }
+    
+    private ExpressionNode function(final Tree<? extends Op<Double>, ?> program, final int function) throws ParserException, ParseException {
+        if (program.childCount() != 1) {
+            return this.parsedFromInfix(program);
+        }
+        return new FunctionExpressionNode(function, this.convert(program.getChild(0)));
+    }
+    
+    private ExpressionNode parsedFromInfix(final Tree<? extends Op<Double>, ?> program) throws ParserException, ParseException {
+        final Parser parser = new Parser();
+        return parser.parse(parser.getAsInfix(TreeNode.<Op<Double>>ofTree(program)));
+    }
+}
@@ -0,0 +1,98 @@
+package ia.module.parser;
+
+import java.util.*;
+
+public class TokenBuffer
+{
+    private static final int INITIAL_CAPACITY = 32;
+    private String source;
+    private int offset;
+    private int size;
+    private int[] kinds;
+    private int[] starts;
+    private int[] ends;
+    
+    public TokenBuffer() {
+        this.source = "";
+        this.offset = 0;
+        this.size = 0;
+        this.kinds = new int[TokenBuffer.INITIAL_CAPACITY];
+        this.starts = new int[TokenBuffer.INITIAL_CAPACITY];
+        this.ends = new int[TokenBuffer.INITIAL_CAPACITY];
+    }
+    
+    public static TokenBuffer of(final List<Token> tokens) {
+        final StringBuilder source = new StringBuilder();
+        final TokenBuffer buffer = new TokenBuffer();
+        for (final Token token : tokens) {
+            final int start = source.length();
+            source.append(token.sequence);
+            buffer.add(token.token, start, source.length());
+        }
+        buffer.source = source.toString();
+        return buffer;
+    }
+    
+    void reset(final String source, final int offset) {
+        this.source = source;
+        this.offset = offset;
+        this.size = 0;
+    }
+    
+    void add(final int kind, final int start, final int end) {
+        if (this.size == this.kinds.length) {
+            final int capacity = this.size * 2;
+            this.kinds = Arrays.copyOf(this.kinds, capacity);
+            this.starts = Arrays.copyOf(this.starts, capacity);
+            this.ends = Arrays.copyOf(this.ends, capacity);
+        }
+        this.kinds[this.size] = kind;
+        this.starts[this.size] = start;
+        this.ends[this.size] = end;
+        ++this.size;
+    }
+    
+    public int size() {
+        return this.size;
+    }
+    
+    public String getSource() {
+        return this.source;
+    }
+    
+    public int kind(final int index) {
+        return this.kinds[index];
+    }
+    
+    public int start(final int index) {
+        return this.starts[index];
+    }
+    
+    public int end(final int index) {
+        return this.ends[index];
+    }
+    
+    public int position(final int index) {
+        return this.starts[index] - this.offset;
+    }
+    
+    public String sequence(final int index) {
+        return this.source.substring(this.starts[index], this.ends[index]);
+    }
+    
+    public boolean sequenceEquals(final int index, final String sequence) {
+        return this.ends[index] - this.starts[index] == sequence.length() && this.source.startsWith(sequence, this.starts[index]);
+    }
+    
+    public Token token(final int index) {
+        return new Token(this.kinds[index], this.sequence(index), this.position(index));
+    }
+    
+    public LinkedList<Token> toList() {
+        final LinkedList<Token> tokens = new LinkedList<Token>();
+        for (int i = 0; i < this.size; ++i) {
+            tokens.add(this.token(i));
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,65 @@
+package ia.module.parser;
+
+import java.util.*;
+
+public class TokenSet
+{
+    private static final int TERM_WITH_X_BY_TERM_WITH_X_MASK = 1 << Operator.TERM_WITH_X_BY_TERM_WITH_X;
+    private final int mask;
+    private final int degree;
+    
+    public TokenSet(final int mask, final int degree) {
+        this.mask = mask;
+        this.degree = degree;
+    }
+    
+    public static TokenSet of(final List<Operator> operators) {
+        int mask = 0;
+        int degree = 0;
+        for (final Operator operator : operators) {
+            mask |= 1 << operator.getOperator();
+            if (operator.getOperator() == Operator.TERM_WITH_X_BY_TERM_WITH_X) {
+                degree = Math.max(degree, operator.getDegree());
+            }
+        }
+        return new TokenSet(mask, degree);
+    }
+    
+    public int getMask() {
+        return this.mask;
+    }
+    
+    public int getDegree() {
+        return this.degree;
+    }
+    
+    public boolean contains(final int token) {
+        return (this.mask & 1 << token) != 0;
+    }
+    
+    public TokenSet intersection(final TokenSet tokens) {
+        return new TokenSet(this.mask & tokens.mask, Math.min(this.degree, tokens.degree));
+    }
+    
+    public TokenSet union(final TokenSet tokens) {
+        return new TokenSet(this.mask | tokens.mask, Math.max(this.degree, tokens.degree));
+    }
+    
+    public long getWeight() {
+        long weight = Operator.getFibonacciWeightOf(this.mask);
+        if ((this.mask & TokenSet.TERM_WITH_X_BY_TERM_WITH_X_MASK) != 0) {
+            weight += this.degree;
+        }
+        return weight;
+    }
+    
+    @Override
+    public String toString() {
+        final StringJoiner tokens = new StringJoiner(", ", "[", "]");
+        for (int remaining = this.mask; remaining != 0; remaining &= remaining - 1) {
+            final int token = Integer.numberOfTrailingZeros(remaining);
+            tokens.add(Operator.newToken(token, (token == Operator.TERM_WITH_X_BY_TERM_WITH_X) ? this.degree : 0).toString());
+        }
+        return tokens.toString();
+    }
+}
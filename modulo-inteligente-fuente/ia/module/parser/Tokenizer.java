@@ -2,84 +2,136 @@ package ia.module.parser;
 
 import ia.module.parser.tree.*;
 import sun.tools.jstat.*;
-import java.util.*;
-import java.util.regex.*;
 
 public class Tokenizer
 {
-    private LinkedList<TokenInfo> tokenInfos;
-    private LinkedList<Token> tokens;
-    private static Tokenizer expressionTokenizer;
+    private static final String[] FUNCTIONS;
+    private static final Tokenizer EXPRESSION_TOKENIZER;
     
-    public Tokenizer() {
-        this.tokenInfos = new LinkedList<TokenInfo>();
-        this.tokens = new LinkedList<Token>();
+    public static Tokenizer getExpressionTokenizer() {
+        return Tokenizer.EXPRESSION_TOKENIZER;
     }
     
-    public static Tokenizer getExpressionTokenizer() {
-        if (Tokenizer.expressionTokenizer == null) {
-            Tokenizer.expressionTokenizer = createExpressionTokenizer();
-        }
-        return Tokenizer.expressionTokenizer;
+    public TokenBuffer tokenize(final String str) throws ParserException {
+        return this.tokenize(str, new TokenBuffer());
     }
     
-    private static Tokenizer createExpressionTokenizer() {
-        final Tokenizer tokenizer = new Tokenizer();
-        tokenizer.add("[+-]", 1);
-        tokenizer.add("[*/]", 2);
-        tokenizer.add("\\^", 3);
-        final String funcs = FunctionExpressionNode.getAllFunctions();
-        tokenizer.add("(" + funcs + ")(?!\\w)", 4);
-        tokenizer.add("\\(", 5);
-        tokenizer.add("\\)", 6);
-        tokenizer.add("(?:\\d+\\.?|\\.\\d)\\d*(?:[Ee][-+]?\\d+)?", 7);
-        tokenizer.add("[a-zA-Z]\\w*", 8);
-        return tokenizer;
+    public TokenBuffer tokenize(final String str, final TokenBuffer tokens) throws ParserException {
+        int start = 0;
+        int end = str.length();
+        while (start < end && str.charAt(start) <= ' ') {
+            ++start;
+        }
+        while (end > start && str.charAt(end - 1) <= ' ') {
+            --end;
+        }
+        tokens.reset(str, start);
+        int cursor = start;
+        while (cursor < end) {
+            final char current = str.charAt(cursor);
+            final int wordEnd = wordEnd(str, cursor, end);
+            int tokenEnd = cursor + 1;
+            int token;
+            if (current == '+' || current == '-') {
+                token = 1;
+            }
+            else if (current == '*' || current == '/') {
+                token = 2;
+            }
+            else if (current == '^') {
+                token = 3;
+            }
+            else if (isFunction(str, cursor, wordEnd)) {
+                token = 4;
+                tokenEnd = wordEnd;
+            }
+            else if (current == '(') {
+                token = 5;
+            }
+            else if (current == ')') {
+                token = 6;
+            }
+            else if ((tokenEnd = numberEnd(str, cursor, end)) > cursor) {
+                token = 7;
+            }
+            else if (isLetter(current)) {
+                token = 8;
+                tokenEnd = wordEnd;
+            }
+            else {
+                throw new ParserException("Unexpected character in input: " + str.substring(cursor, end));
+            }
+            tokens.add(token, cursor, tokenEnd);
+            cursor = tokenEnd;
+            while (cursor < end && str.charAt(cursor) <= ' ') {
+                ++cursor;
+            }
+        }
+        return tokens;
     }
     
-    public void add(final String regex, final int token) {
-        this.tokenInfos.add(new TokenInfo(Pattern.compile("^(" + regex + ")"), token));
+    private static boolean isFunction(final String str, final int from, final int to) {
+        for (final String function : Tokenizer.FUNCTIONS) {
+            if (function.length() == to - from && str.regionMatches(from, function, 0, function.length())) {
+                return true;
+            }
+        }
+        return false;
     }
     
-    public void tokenize(final String str) throws ParserException {
-        String s = str.trim();
-        final int totalLength = s.length();
-        this.tokens.clear();
-        while (!s.equals("")) {
-            final int remaining = s.length();
-            boolean match = false;
-            for (final TokenInfo info : this.tokenInfos) {
-                final Matcher m = info.regex.matcher(s);
-                if (m.find()) {
-                    match = true;
-                    final String tok = m.group().trim();
-                    s = m.replaceFirst("").trim();
-                    this.tokens.add(new Token(info.token, tok, totalLength - remaining));
-                    break;
-                }
+    private static int numberEnd(final String str, final int from, final int end) {
+        int cursor = from;
+        if (cursor < end && isDigit(str.charAt(cursor))) {
+            cursor = digitsEnd(str, cursor, end);
+            if (cursor < end && str.charAt(cursor) == '.') {
+                ++cursor;
+            }
+        }
+        else {
+            if (cursor + 1 >= end || str.charAt(cursor) != '.' || !isDigit(str.charAt(cursor + 1))) {
+                return from;
             }
-            if (!match) {
-                throw new ParserException("Unexpected character in input: " + s);
+            cursor += 2;
+        }
+        cursor = digitsEnd(str, cursor, end);
+        if (cursor < end && (str.charAt(cursor) == 'e' || str.charAt(cursor) == 'E')) {
+            int exponent = cursor + 1;
+            if (exponent < end && (str.charAt(exponent) == '+' || str.charAt(exponent) == '-')) {
+                ++exponent;
+            }
+            if (exponent < end && isDigit(str.charAt(exponent))) {
+                cursor = digitsEnd(str, exponent, end);
             }
         }
+        return cursor;
     }
     
-    public LinkedList<Token> getTokens() {
-        return this.tokens;
+    private static int digitsEnd(final String str, final int from, final int end) {
+        int cursor = from;
+        while (cursor < end && isDigit(str.charAt(cursor))) {
+            ++cursor;
+        }
+        return cursor;
     }
     
-    static {
-        Tokenizer.expressionTokenizer = null;
+    private static int wordEnd(final String str, final int from, final int end) {
+        int cursor = from;
+        while (cursor < end && (isLetter(str.charAt(cursor)) || isDigit(str.charAt(cursor)) || str.charAt(cursor) == '_')) {
+            ++cursor;
+        }
+        return cursor;
     }
     
-    private class TokenInfo
-    {
-        public final Pattern regex;
-        public final int token;
-        
-        public TokenInfo(final Pattern regex, final int token) {
-            this.regex = regex;
-            this.token = token;
-        }
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+    
+    private static boolean isLetter(final char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+    
+    static {
+        FUNCTIONS = FunctionExpressionNode.getAllFunctions().split("\\|");
+        EXPRESSION_TOKENIZER = new Tokenizer();
     }
 }
@@ -74,32 +74,28 @@ public abstract class AbstractExpressionNode
     
     public abstract List<Operator> getListOfTokens();
     
+    public abstract void countTokens(final double[] counts);
+    
     public double[] extractFeaturesForExpression() {
-        double[] features = new double[NeuralNetworkConfig.INPUTS];
-        for (final Operator operator : this.normalize().getListOfTokens()) {
-            final Integer index = (operator.getOperator() > 10) ? (operator.getOperator() - 1) : operator.getOperator();
-            features = this.incrementFeaturesUntil(features, index);
-        }
-        return this.normalizeFeatures(features);
+        return this.extractFeaturesForExpression(new double[NeuralNetworkConfig.INPUTS]);
     }
     
-    private double[] incrementFeaturesUntil(final double[] features, final Integer index) {
-        for (int i = 0; i <= index; ++i) {
-            final int n = i;
-            ++features[n];
+    public double[] extractFeaturesForExpression(final double[] features) {
+        Arrays.fill(features, 0.0);
+        this.normalize().countTokens(features);
+        for (int i = features.length - 2; i >= 0; --i) {
+            features[i] += features[i + 1];
+        }
+        final long maxOrder = this.getMaxOrder(features[0]);
+        for (int i = 0; i < features.length; ++i) {
+            features[i] /= maxOrder;
         }
         return features;
     }
     
-    private double[] normalizeFeatures(final double[] features) {
-        final Long maxOrder = this.getMaxOrder(features);
-        return Arrays.stream(features).map(feature -> feature / maxOrder).toArray();
-    }
-    
-    private Long getMaxOrder(final double[] features) {
-        Double max;
-        Long quotient;
-        for (max = Arrays.stream(features).reduce(0.0, Math::max), quotient = 1L; max / quotient >= 1.0; quotient *= 10L) {}
+    private long getMaxOrder(final double max) {
+        long quotient;
+        for (quotient = 1L; max / quotient >= 1.0; quotient *= 10L) {}
         return quotient;
     }
 }
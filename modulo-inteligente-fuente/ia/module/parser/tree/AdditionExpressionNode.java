@@ -2,7 +2,8 @@ package ia.module.parser.tree;
 
 import java.util.*;
 import com.sun.tools.corba.se.idl.constExpr.*;
-import java.util.function.*;
+import io.jenetics.ext.util.*;
+import io.jenetics.prog.op.*;
 
 public class AdditionExpressionNode extends SequenceExpressionNode
 {
@@ -37,12 +38,12 @@ public class AdditionExpressionNode extends SequenceExpressionNode
     }
     
     @Override
-    public Integer getLevel() {
+    protected Integer calculateLevel() {
         return this.getLevelFromBases(0, 3);
     }
     
     @Override
-    public Integer getToken() {
+    protected Integer calculateToken() {
         if (this.hasVariable()) {
             return 9;
         }
@@ -58,8 +59,13 @@ public class AdditionExpressionNode extends SequenceExpressionNode
     }
     
     @Override
-    public Integer getDegree() {
-        return this.terms.stream().map((Function<? super Object, ? extends Integer>)Term::getDegree).reduce(0, (max, nextDegree) -> Math.max(max, nextDegree));
+    protected Integer calculateDegree() {
+        return this.terms.stream().map(Term::getDegree).reduce(0, (max, nextDegree) -> Math.max(max, nextDegree));
+    }
+    
+    @Override
+    public TreeNode<Op<Double>> toProgramTree() {
+        return this.toProgramTree(MathOp.ADD, MathOp.SUB, 0.0);
     }
     
     @Override
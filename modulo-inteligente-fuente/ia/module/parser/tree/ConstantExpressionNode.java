@@ -2,6 +2,8 @@ package ia.module.parser.tree;
 
 import ia.module.parser.*;
 import java.util.*;
+import io.jenetics.ext.util.*;
+import io.jenetics.prog.op.*;
 
 public class ConstantExpressionNode extends AbstractExpressionNode implements ExpressionNode
 {
@@ -67,7 +69,7 @@ public class ConstantExpressionNode extends AbstractExpressionNode implements Ex
     
     @Override
     public Boolean isFractionalNumber() {
-        return this.value - (int)(Object)this.value > 0.0;
+        return this.value - this.value.intValue() > 0.0;
     }
     
     @Override
@@ -93,12 +95,22 @@ public class ConstantExpressionNode extends AbstractExpressionNode implements Ex
     @Override
     public List<Operator> getListOfTokens() {
         final List<Operator> tokens = new ArrayList<Operator>();
-        tokens.add(Operator.newToken(this.getToken(), (int)(Object)this.value));
+        tokens.add(Operator.newToken(this.getToken(), this.value.intValue()));
         return tokens;
     }
     
+    @Override
+    public void countTokens(final double[] counts) {
+        ++counts[Operator.inputIndexOf(this.getToken())];
+    }
+    
     @Override
     public ExpressionNode simplify() {
         return new ConstantExpressionNode(this.value);
     }
+    
+    @Override
+    public TreeNode<Op<Double>> toProgramTree() {
+        return TreeNode.of(Const.of(this.value));
+    }
 }
@@ -2,7 +2,10 @@ package ia.module.parser.tree;
 
 import com.sun.tools.corba.se.idl.constExpr.*;
 import ia.module.parser.*;
+import ia.module.config.*;
 import java.util.*;
+import io.jenetics.ext.util.*;
+import io.jenetics.prog.op.*;
 
 public class ExponentiationExpressionNode extends AbstractExpressionNode implements ExpressionNode
 {
@@ -124,6 +127,11 @@ public class ExponentiationExpressionNode extends AbstractExpressionNode impleme
         if (this.base.hasVariable() && this.exponent.isPositiveNumber() && !this.exponent.isFractionalNumber()) {
             try {
                 final Integer exponentValue = (int)this.exponent.getValue();
+                if (exponentValue > ExpressionsConfig.MAX_EXPANDED_EXPONENT) {
+                    this.base = this.base.normalize();
+                    this.exponent = this.exponent.normalize();
+                    return this;
+                }
                 if (exponentValue != 0) {
                     final MultiplicationExpressionNode multiplication = new MultiplicationExpressionNode(this.base, true);
                     for (int i = 2; i <= exponentValue; ++i) {
@@ -153,6 +161,13 @@ public class ExponentiationExpressionNode extends AbstractExpressionNode impleme
         return tokens;
     }
     
+    @Override
+    public void countTokens(final double[] counts) {
+        ++counts[Operator.inputIndexOf(this.getToken())];
+        this.base.countTokens(counts);
+        this.exponent.countTokens(counts);
+    }
+    
     @Override
     public Boolean contains(final Integer operator) {
         return this.base.contains(operator) || this.exponent.contains(operator);
@@ -180,4 +195,14 @@ public class ExponentiationExpressionNode extends AbstractExpressionNode impleme
         }
         return new ExponentiationExpressionNode(baseSimplified, exponentSimplified);
     }
+    
+    @Override
+    public TreeNode<Op<Double>> toProgramTree() {
+        final TreeNode<Op<Double>> base = this.base.toProgramTree();
+        final TreeNode<Op<Double>> exponent = this.exponent.toProgramTree();
+        if (base == null || exponent == null) {
+            return null;
+        }
+        return TreeNode.<Op<Double>>of(MathOp.POW).attach(base).attach(exponent);
+    }
 }
@@ -3,6 +3,8 @@ package ia.module.parser.tree;
 import com.sun.tools.corba.se.idl.constExpr.*;
 import java.util.*;
 import ia.module.parser.*;
+import io.jenetics.ext.util.*;
+import io.jenetics.prog.op.*;
 
 public interface ExpressionNode
 {
@@ -55,9 +57,15 @@ public interface ExpressionNode
     
     List<Operator> getListOfTokens();
     
+    void countTokens(final double[] p0);
+    
     Boolean contains(final Integer p0);
     
     double[] extractFeaturesForExpression();
     
+    double[] extractFeaturesForExpression(final double[] p0);
+    
     ExpressionNode simplify();
+    
+    TreeNode<Op<Double>> toProgramTree();
 }
@@ -4,6 +4,9 @@ import com.sun.tools.corba.se.idl.constExpr.*;
 import java.text.*;
 import ia.module.parser.*;
 import java.util.*;
+import ia.module.extension.*;
+import io.jenetics.ext.util.*;
+import io.jenetics.prog.op.*;
 
 public class FunctionExpressionNode extends AbstractExpressionNode implements ExpressionNode
 {
@@ -254,6 +257,12 @@ public class FunctionExpressionNode extends AbstractExpressionNode implements Ex
         return tokens;
     }
     
+    @Override
+    public void countTokens(final double[] counts) {
+        ++counts[Operator.inputIndexOf(this.getToken())];
+        this.argument.countTokens(counts);
+    }
+    
     @Override
     public ExpressionNode simplify() {
         final ExpressionNode argumentSimplified = this.argument.simplify();
@@ -267,4 +276,49 @@ public class FunctionExpressionNode extends AbstractExpressionNode implements Ex
         }
         return new FunctionExpressionNode(this.function, argumentSimplified);
     }
+    
+    @Override
+    public TreeNode<Op<Double>> toProgramTree() {
+        final Op<Double> operation = this.toProgramOperation();
+        final TreeNode<Op<Double>> argument = this.argument.toProgramTree();
+        if (operation == null || argument == null) {
+            return null;
+        }
+        return TreeNode.of(operation).attach(argument);
+    }
+    
+    private Op<Double> toProgramOperation() {
+        switch (this.function) {
+            case 1: {
+                return MathOp.SIN;
+            }
+            case 2: {
+                return MathOp.COS;
+            }
+            case 3: {
+                return MathOp.TAN;
+            }
+            case 7: {
+                return MathOp.SQRT;
+            }
+            case 9: {
+                return ExtraMathOp.LN;
+            }
+            case 10: {
+                return ExtraMathOp.LOG;
+            }
+            case 11: {
+                return ExtraMathOp.LOG2B;
+            }
+            case 12: {
+                return ExtraMathOp.DERIVATIVE;
+            }
+            case 13: {
+                return ExtraMathOp.INTEGRAL;
+            }
+            default: {
+                return null;
+            }
+        }
+    }
 }
@@ -2,7 +2,8 @@ package ia.module.parser.tree;
 
 import java.util.*;
 import com.sun.tools.corba.se.idl.constExpr.*;
-import java.util.function.*;
+import io.jenetics.ext.util.*;
+import io.jenetics.prog.op.*;
 
 public class MultiplicationExpressionNode extends SequenceExpressionNode
 {
@@ -34,17 +35,17 @@ public class MultiplicationExpressionNode extends SequenceExpressionNode
     }
     
     @Override
-    public Integer getDegree() {
-        return this.terms.stream().map((Function<? super Object, ? extends Integer>)Term::getDegree).reduce(0, (total, aDegree) -> total + aDegree);
+    protected Integer calculateDegree() {
+        return this.terms.stream().map(Term::getDegree).reduce(0, (total, aDegree) -> total + aDegree);
     }
     
     @Override
-    public Integer getLevel() {
+    protected Integer calculateLevel() {
         return this.getLevelFromBases(1, 4);
     }
     
     @Override
-    public Integer getToken() {
+    protected Integer calculateToken() {
         if (!this.hasVariable()) {
             if (this.allPositives()) {
                 return 3;
@@ -117,6 +118,11 @@ public class MultiplicationExpressionNode extends SequenceExpressionNode
         return this.terms.stream().anyMatch(Term::isZero);
     }
     
+    @Override
+    public TreeNode<Op<Double>> toProgramTree() {
+        return this.toProgramTree(MathOp.MUL, MathOp.DIV, 1.0);
+    }
+    
     @Override
     public MultiplicationExpressionNode newSequenceWithTerms(final List<Term> terms) {
         return new MultiplicationExpressionNode(terms);
@@ -4,10 +4,17 @@ import java.util.function.*;
 import ia.module.parser.*;
 import java.util.stream.*;
 import java.util.*;
+import io.jenetics.ext.util.*;
+import io.jenetics.prog.op.*;
 
 public abstract class SequenceExpressionNode extends AbstractExpressionNode implements ExpressionNode
 {
     protected List<Term> terms;
+    private Integer level;
+    private Integer token;
+    private Integer degree;
+    private Boolean variable;
+    private Boolean number;
     
     public SequenceExpressionNode() {
         this.terms = new LinkedList<Term>();
@@ -19,16 +26,61 @@ public abstract class SequenceExpressionNode extends AbstractExpressionNode impl
     
     public void add(final ExpressionNode a, final boolean positive) {
         this.terms.add(new Term(positive, a));
+        this.forgetAttributes();
     }
     
+    protected void forgetAttributes() {
+        this.level = null;
+        this.token = null;
+        this.degree = null;
+        this.variable = null;
+        this.number = null;
+    }
+    
+    @Override
+    public Integer getLevel() {
+        if (this.level == null) {
+            this.level = this.calculateLevel();
+        }
+        return this.level;
+    }
+    
+    @Override
+    public Integer getToken() {
+        if (this.token == null) {
+            this.token = this.calculateToken();
+        }
+        return this.token;
+    }
+    
+    @Override
+    public Integer getDegree() {
+        if (this.degree == null) {
+            this.degree = this.calculateDegree();
+        }
+        return this.degree;
+    }
+    
+    protected abstract Integer calculateLevel();
+    
+    protected abstract Integer calculateToken();
+    
+    protected abstract Integer calculateDegree();
+    
     @Override
     public Boolean hasVariable() {
-        return this.terms.stream().anyMatch(Term::hasVariable);
+        if (this.variable == null) {
+            this.variable = this.terms.stream().anyMatch(Term::hasVariable);
+        }
+        return this.variable;
     }
     
     @Override
     public Boolean isNumber() {
-        return this.terms.stream().allMatch(Term::isNumber);
+        if (this.number == null) {
+            this.number = this.terms.stream().allMatch(Term::isNumber);
+        }
+        return this.number;
     }
     
     @Override
@@ -52,7 +104,7 @@ public abstract class SequenceExpressionNode extends AbstractExpressionNode impl
     }
     
     public Integer maxLevelAgainst(final Integer level) {
-        return this.terms.stream().map((Function<? super Object, ? extends Integer>)Term::getLevel).reduce(level, Math::max);
+        return this.terms.stream().map(Term::getLevel).reduce(level, Math::max);
     }
     
     protected Integer getLevelFromBases(final Integer lowerBase, final Integer upperBase) {
@@ -123,7 +175,7 @@ public abstract class SequenceExpressionNode extends AbstractExpressionNode impl
         }
         try {
             final Double value = this.getValue();
-            return Math.abs(value - (int)(Object)value) > 0.0;
+            return Math.abs(value - value.intValue()) > 0.0;
         }
         catch (Exception e) {
             return false;
@@ -152,9 +204,18 @@ public abstract class SequenceExpressionNode extends AbstractExpressionNode impl
         return tokens;
     }
     
+    @Override
+    public void countTokens(final double[] counts) {
+        ++counts[Operator.inputIndexOf(this.getToken())];
+        for (final Term term : this.terms) {
+            term.countTokens(counts);
+        }
+    }
+    
     @Override
     public ExpressionNode normalize() {
-        this.terms = this.terms.stream().map(term -> new Term(term.positive, term.normalize())).collect((Collector<? super Object, ?, List<Term>>)Collectors.toList());
+        this.terms = this.terms.stream().map(term -> new Term(term.positive, term.normalize())).collect(Collectors.toList());
+        this.forgetAttributes();
         return this;
     }
     
@@ -177,7 +238,7 @@ public abstract class SequenceExpressionNode extends AbstractExpressionNode impl
     }
     
     private ExpressionNode simplifySequenceWithVariables() {
-        final List<Term> termsSimplified = this.terms.stream().map((Function<? super Object, ?>)Term::simplify).collect((Collector<? super Object, ?, List<Term>>)Collectors.toList());
+        final List<Term> termsSimplified = this.terms.stream().map(Term::simplify).collect(Collectors.toList());
         final Map<String, Map<Term, Integer>> countOfTermsBySign = new HashMap<String, Map<Term, Integer>>();
         for (final Term term : termsSimplified) {
             final Map<Term, Integer> value = new HashMap<Term, Integer>();
@@ -200,5 +261,29 @@ public abstract class SequenceExpressionNode extends AbstractExpressionNode impl
         return this.newSequenceWithTerms(newTerms);
     }
     
+    protected TreeNode<Op<Double>> toProgramTree(final Op<Double> positiveOperation, final Op<Double> negativeOperation, final Double neutral) {
+        final List<Term> terms = new ArrayList<Term>(this.terms);
+        for (int i = 0; i < terms.size(); ++i) {
+            if (terms.get(i).positive) {
+                terms.add(0, terms.remove(i));
+                break;
+            }
+        }
+        TreeNode<Op<Double>> program = null;
+        for (final Term term : terms) {
+            final TreeNode<Op<Double>> termProgram = term.expression.toProgramTree();
+            if (termProgram == null) {
+                return null;
+            }
+            if (program == null) {
+                program = (term.positive ? termProgram : TreeNode.of(negativeOperation).attach(TreeNode.<Op<Double>>of(Const.of(neutral))).attach(termProgram));
+            }
+            else {
+                program = TreeNode.of(term.positive ? positiveOperation : negativeOperation).attach(program).attach(termProgram);
+            }
+        }
+        return (program == null) ? TreeNode.<Op<Double>>of(Const.of(neutral)) : program;
+    }
+    
     public abstract SequenceExpressionNode newSequenceWithTerms(final List<Term> p0);
 }
@@ -5,8 +5,8 @@ import java.util.*;
 
 public class Term
 {
-    public boolean positive;
-    public ExpressionNode expression;
+    public final boolean positive;
+    public final ExpressionNode expression;
     
     public Term(final boolean positive, final ExpressionNode expression) {
         this.positive = positive;
@@ -67,6 +67,10 @@ public class Term
         return tokens;
     }
     
+    public void countTokens(final double[] counts) {
+        this.expression.countTokens(counts);
+    }
+    
     public Boolean contains(final Integer operator) {
         return this.expression.contains(operator);
     }
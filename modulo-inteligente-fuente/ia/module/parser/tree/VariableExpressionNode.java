@@ -3,6 +3,8 @@ package ia.module.parser.tree;
 import com.sun.tools.corba.se.idl.constExpr.*;
 import ia.module.parser.*;
 import java.util.*;
+import io.jenetics.ext.util.*;
+import io.jenetics.prog.op.*;
 
 public class VariableExpressionNode extends AbstractExpressionNode implements ExpressionNode
 {
@@ -80,8 +82,18 @@ public class VariableExpressionNode extends AbstractExpressionNode implements Ex
         return tokens;
     }
     
+    @Override
+    public void countTokens(final double[] counts) {
+        ++counts[Operator.inputIndexOf(this.getToken())];
+    }
+    
     @Override
     public ExpressionNode simplify() {
         return new VariableExpressionNode(this.name);
     }
+    
+    @Override
+    public TreeNode<Op<Double>> toProgramTree() {
+        return TreeNode.of(Var.of(this.name, 0));
+    }
 }
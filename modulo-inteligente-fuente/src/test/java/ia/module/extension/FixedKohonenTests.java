@@ -0,0 +1,45 @@
+package ia.module.extension;
+
+import ia.module.config.NeuralNetworkConfig;
+import ia.module.parser.Parser;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class FixedKohonenTests {
+
+	private static final String[] PATTERNS = {
+			"3(x+1)+5", "2x-5", "x^2+3x", "(x+1)/(x-1)", "sqrt(x+1)", "ln(x)+log(x)", "sin(x)^2+cos(x)^2", "2^(x+1)", "x/2/3", "7"
+	};
+
+	@Test
+	public void modelOutputsMatchTheNetworkOnAFixedPatternSet() throws Exception {
+		Random random = new Random(20180703L);
+		double[] weights = new double[NeuralNetworkConfig.INPUTS * NeuralNetworkConfig.OUTPUTS];
+		for (int i = 0; i < weights.length; i++) {
+			weights[i] = 2 * random.nextDouble();
+		}
+		FixedKohonen network = new FixedKohonen(NeuralNetworkConfig.INPUTS, NeuralNetworkConfig.OUTPUTS);
+		network.setWeights(weights);
+		KohonenModel model = KohonenTrainer.modelOf(network);
+		assertArrayEquals(weights, model.getWeights(), 0.0);
+
+		List<double[]> inputs = new ArrayList<>();
+		for (String pattern : PATTERNS) {
+			inputs.add(new Parser().parse(pattern).extractFeaturesForExpression());
+		}
+		for (int i = 0; i < 50; i++) {
+			double[] input = new double[NeuralNetworkConfig.INPUTS];
+			for (int j = 0; j < input.length; j++) {
+				input[j] = random.nextInt(4) == 0 ? 0.0 : random.nextDouble();
+			}
+			inputs.add(input);
+		}
+		assertEquals(0.0, KohonenTrainer.maxDifference(model, network, inputs), 1e-9);
+	}
+}